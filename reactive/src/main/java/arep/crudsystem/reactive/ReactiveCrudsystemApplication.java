@@ -0,0 +1,13 @@
+package arep.crudsystem.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveCrudsystemApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveCrudsystemApplication.class, args);
+	}
+
+}
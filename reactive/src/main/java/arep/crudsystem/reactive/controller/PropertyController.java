@@ -0,0 +1,156 @@
+package arep.crudsystem.reactive.controller;
+
+import arep.crudsystem.reactive.model.Property;
+import arep.crudsystem.reactive.model.PropertyPage;
+import arep.crudsystem.reactive.service.PropertyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking version of the {@code /api/properties} API.
+ * Request handling never parks a thread: while a client is slow to read, it only holds its
+ * connection and the rows that were requested for it.
+ */
+@RestController
+@RequestMapping("/api/properties")
+public class PropertyController {
+
+    @Autowired
+    private PropertyService propertyService;
+
+    /**
+     * Retrieves all properties with pagination.
+     *
+     * @param page The page number to retrieve (default is 0).
+     * @param size The number of properties per page (default is 5).
+     * @return A page of properties.
+     */
+    @GetMapping
+    public Mono<PropertyPage> getAllProperties(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "5") int size) {
+        return propertyService.getAllProperties(page, size);
+    }
+
+    /**
+     * Searches for properties based on filters and returns them with pagination.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (default is 0).
+     * @param size     The number of properties per page (default is 5).
+     * @return A page of properties matching the filters.
+     */
+    @GetMapping("/search")
+    public Mono<PropertyPage> searchProperties(@RequestParam(required = false) String query,
+                                               @RequestParam(required = false) Double maxPrice,
+                                               @RequestParam(required = false) Double maxSize,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "5") int size) {
+        return propertyService.searchProperties(query, maxPrice, maxSize, page, size);
+    }
+
+    /**
+     * Streams every property matching the filters as NDJSON or server-sent events.
+     * Rows are read from the database only as fast as the client consumes them.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @return The matching properties, ordered by ID.
+     */
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Property> streamSearch(@RequestParam(required = false) String query,
+                                       @RequestParam(required = false) Double maxPrice,
+                                       @RequestParam(required = false) Double maxSize) {
+        return propertyService.streamProperties(query, maxPrice, maxSize);
+    }
+
+    /**
+     * Exports every property as NDJSON, streamed from the database as it is read.
+     *
+     * @return A ResponseEntity whose body is written incrementally.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<Flux<Property>> exportProperties() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"properties.ndjson\"")
+                .body(propertyService.streamProperties(null, null, null));
+    }
+
+    /**
+     * Retrieves a property by its ID.
+     *
+     * @param id The ID of the property to retrieve.
+     * @return A ResponseEntity containing the property if found, or a 404 status if not found.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Property>> getPropertyById(@PathVariable Long id) {
+        return propertyService.getPropertyById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Creates a new property.
+     *
+     * @param property The property to create.
+     * @return The created property.
+     */
+    @PostMapping
+    public Mono<Property> createProperty(@RequestBody Property property) {
+        return propertyService.createProperty(property);
+    }
+
+    /**
+     * Updates an existing property.
+     * The body must include the property's {@code version}: without it the update is rejected with a 428 status,
+     * and with an outdated one with a 409 status, since someone else modified the property since that version.
+     *
+     * @param id              The ID of the property to update.
+     * @param propertyDetails The updated property details.
+     * @return A ResponseEntity containing the updated property.
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Property>> updateProperty(@PathVariable Long id, @RequestBody Property propertyDetails) {
+        if (propertyDetails.getVersion() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,
+                    "Send the property's version"));
+        }
+        return propertyService.updateProperty(id, propertyDetails).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Deletes a property by its ID.
+     *
+     * @param id The ID of the property to delete.
+     * @return A ResponseEntity with no content (204 status).
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProperty(@PathVariable Long id) {
+        return propertyService.deleteProperty(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    /**
+     * Handles updates based on an outdated version of a property.
+     *
+     * @param e The optimistic locking failure.
+     * @return A ResponseEntity with a 409 status.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "The property was modified by another user"));
+    }
+}
@@ -0,0 +1,93 @@
+package arep.crudsystem.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Represents a property entity in the system.
+ * This class is mapped to the same "properties" table as the blocking application.
+ */
+@Table("properties")
+public class Property {
+    /**
+     * The unique identifier for the property, assigned from the "property_seq" sequence.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * The address of the property.
+     */
+    private String address;
+
+    /**
+     * The price of the property.
+     */
+    private Double price;
+
+    /**
+     * The size of the property (e.g., in square meters).
+     */
+    private Double size;
+
+    /**
+     * A description of the property.
+     */
+    private String description;
+
+    /**
+     * The version of the property, incremented on every update.
+     * Used for optimistic locking: an update based on an outdated version is rejected.
+     */
+    @Version
+    private Long version;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Double getSize() {
+        return size;
+    }
+
+    public void setSize(Double size) {
+        this.size = size;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,35 @@
+package arep.crudsystem.reactive.model;
+
+import java.util.List;
+
+/**
+ * One page of properties, serialized with the same fields the blocking API returns for a Spring Data page.
+ *
+ * @param content          The properties of this page.
+ * @param number           The zero-based page number.
+ * @param size             The requested page size.
+ * @param totalElements    The number of matching properties.
+ * @param totalPages       The number of pages.
+ * @param numberOfElements The number of properties in this page.
+ * @param first            Whether this is the first page.
+ * @param last             Whether this is the last page.
+ * @param empty            Whether this page has no content.
+ */
+public record PropertyPage(List<Property> content, int number, int size, long totalElements, int totalPages,
+                           int numberOfElements, boolean first, boolean last, boolean empty) {
+
+    /**
+     * Builds a page from its content and the total count.
+     *
+     * @param content       The properties of this page.
+     * @param number        The zero-based page number.
+     * @param size          The requested page size.
+     * @param totalElements The number of matching properties.
+     * @return The page.
+     */
+    public static PropertyPage of(List<Property> content, int number, int size, long totalElements) {
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+        return new PropertyPage(content, number, size, totalElements, totalPages, content.size(),
+                number == 0, number + 1 >= totalPages, content.isEmpty());
+    }
+}
@@ -0,0 +1,32 @@
+package arep.crudsystem.reactive.repository;
+
+import arep.crudsystem.reactive.model.Property;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository for {@link Property} entities.
+ * The filtered searches live in {@link PropertySearchRepository}.
+ */
+public interface PropertyRepository extends R2dbcRepository<Property, Long>, PropertySearchRepository {
+
+    /**
+     * Overwrites the editable fields of a property with a single statement and bumps its version.
+     * When {@code version} is not null the row is only updated if it still has that version.
+     *
+     * @param id          The ID of the property to update.
+     * @param address     The new address.
+     * @param price       The new price.
+     * @param size        The new size.
+     * @param description The new description.
+     * @param version     The version the caller based the update on, or {@code null} to skip the check.
+     * @return The number of updated rows (0 or 1).
+     */
+    @Modifying
+    @Query("UPDATE properties SET address = :address, price = :price, size = :size, description = :description, "
+            + "version = COALESCE(version, 0) + 1 "
+            + "WHERE id = :id AND (CAST(:version AS BIGINT) IS NULL OR version = :version)")
+    Mono<Integer> updateFields(Long id, String address, Double price, Double size, String description, Long version);
+}
@@ -0,0 +1,46 @@
+package arep.crudsystem.reactive.repository;
+
+import arep.crudsystem.reactive.model.Property;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtered searches over properties, mirroring {@code PropertyRepository.search} of the blocking application.
+ * Only the filters that are supplied end up in the generated SQL.
+ */
+public interface PropertySearchRepository {
+
+    /**
+     * Searches one page of properties.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The page to read.
+     * @return The properties of the page.
+     */
+    Flux<Property> search(String query, Double maxPrice, Double maxSize, Pageable pageable);
+
+    /**
+     * Counts the properties matching the filters.
+     *
+     * @param query    The search query (optional).
+     * @param maxPrice The maximum price (optional).
+     * @param maxSize  The maximum size (optional).
+     * @return The number of matching properties.
+     */
+    Mono<Long> countSearch(String query, Double maxPrice, Double maxSize);
+
+    /**
+     * Streams every property matching the filters, ordered by ID.
+     * Rows are fetched as the subscriber requests them, so a slow consumer slows down the read
+     * instead of buffering the result in memory.
+     *
+     * @param query    The search query (optional).
+     * @param maxPrice The maximum price (optional).
+     * @param maxSize  The maximum size (optional).
+     * @return The matching properties.
+     */
+    Flux<Property> streamSearch(String query, Double maxPrice, Double maxSize);
+}
@@ -0,0 +1,68 @@
+package arep.crudsystem.reactive.repository;
+
+import arep.crudsystem.reactive.model.Property;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+
+/**
+ * {@link PropertySearchRepository} implementation built on {@link R2dbcEntityTemplate} criteria.
+ */
+class PropertySearchRepositoryImpl implements PropertySearchRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    PropertySearchRepositoryImpl(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public Flux<Property> search(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return template.select(Property.class)
+                .matching(Query.query(matching(query, maxPrice, maxSize)).with(pageable))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> countSearch(String query, Double maxPrice, Double maxSize) {
+        return template.select(Property.class)
+                .matching(Query.query(matching(query, maxPrice, maxSize)))
+                .count();
+    }
+
+    @Override
+    public Flux<Property> streamSearch(String query, Double maxPrice, Double maxSize) {
+        return template.select(Property.class)
+                .matching(Query.query(matching(query, maxPrice, maxSize)).sort(Sort.by("id")))
+                .all();
+    }
+
+    /**
+     * Combines the search filters that are present.
+     *
+     * @param query    The search query (optional).
+     * @param maxPrice The maximum price (optional).
+     * @param maxSize  The maximum size (optional).
+     * @return A criteria with one predicate per supplied filter.
+     */
+    static Criteria matching(String query, Double maxPrice, Double maxSize) {
+        Criteria criteria = Criteria.empty();
+        if (query != null && !query.isEmpty()) {
+            String pattern = "%" + query + "%";
+            criteria = criteria.and(where("address").like(pattern).or("description").like(pattern));
+        }
+        if (maxPrice != null) {
+            criteria = criteria.and(where("price").lessThanOrEquals(maxPrice));
+        }
+        if (maxSize != null) {
+            criteria = criteria.and(where("size").lessThanOrEquals(maxSize));
+        }
+        return criteria;
+    }
+}
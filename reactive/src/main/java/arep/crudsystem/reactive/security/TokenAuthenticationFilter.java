@@ -0,0 +1,55 @@
+package arep.crudsystem.reactive.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the main application's authorization rules to the property API: reads are public, while writes
+ * and the export need an {@code Authorization: Bearer} token checked with {@link TokenVerifier}.
+ * Other requests are answered with a 401 status.
+ */
+@Component
+public class TokenAuthenticationFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenVerifier tokenVerifier;
+
+    public TokenAuthenticationFilter(TokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!requiresToken(request) || hasValidToken(request)) {
+            return chain.filter(exchange);
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+
+    private boolean requiresToken(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.startsWith("/api/properties")) {
+            return false;
+        }
+        HttpMethod method = request.getMethod();
+        boolean read = HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)
+                || HttpMethod.OPTIONS.equals(method);
+        return !read || path.equals("/api/properties/export");
+    }
+
+    private boolean hasValidToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith(BEARER_PREFIX)
+                && tokenVerifier.verify(header.substring(BEARER_PREFIX.length()).trim()).isPresent();
+    }
+}
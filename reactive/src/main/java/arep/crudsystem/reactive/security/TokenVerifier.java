@@ -0,0 +1,89 @@
+package arep.crudsystem.reactive.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies the HS256-signed tokens issued by the main application's {@code /auth/login}.
+ * This variant has no users of its own: it accepts a token when it shares the main application's
+ * {@code auth.token.secret}. Without a secret no token is valid, so every write is rejected.
+ */
+@Component
+public class TokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenVerifier.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SecretKeySpec key;
+    private final Clock clock = Clock.systemUTC();
+
+    public TokenVerifier(@Value("${auth.token.secret:}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("auth.token.secret is not set; no token is accepted, so writes are rejected");
+            this.key = null;
+        } else {
+            byte[] keyBytes = Base64.getDecoder().decode(secret);
+            if (keyBytes.length < 32) {
+                throw new IllegalArgumentException("auth.token.secret must be at least 256 bits");
+            }
+            this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        }
+    }
+
+    /**
+     * Verifies a token and returns its subject.
+     *
+     * @param token The token to check.
+     * @return The username if the signature is valid and the token has not expired.
+     */
+    public Optional<String> verify(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (key == null || parts.length != 3 || !HEADER.equals(parts[0])) {
+            return Optional.empty();
+        }
+        try {
+            byte[] signature = DECODER.decode(parts[2]);
+            if (!MessageDigest.isEqual(signature, sign(parts[0] + "." + parts[1]))) {
+                return Optional.empty();
+            }
+            JsonNode claims = objectMapper.readTree(DECODER.decode(parts[1]));
+            JsonNode subject = claims.get("sub");
+            JsonNode expiresAt = claims.get("exp");
+            if (subject == null || !subject.isTextual() || expiresAt == null || !expiresAt.canConvertToLong()
+                    || expiresAt.asLong() <= clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(subject.asText());
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String signingInput) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package arep.crudsystem.reactive.service;
+
+import arep.crudsystem.reactive.model.Property;
+import arep.crudsystem.reactive.model.PropertyPage;
+import arep.crudsystem.reactive.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the blocking {@code PropertyService}.
+ */
+@Service
+public class PropertyService {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    /**
+     * Retrieves one page of properties ordered by ID.
+     *
+     * @param page The zero-based page number.
+     * @param size The number of properties per page.
+     * @return The page.
+     */
+    public Mono<PropertyPage> getAllProperties(int page, int size) {
+        return searchProperties(null, null, null, page, size);
+    }
+
+    /**
+     * Searches one page of properties; the page and the total count are queried concurrently.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The zero-based page number.
+     * @param size     The number of properties per page.
+     * @return The page.
+     */
+    public Mono<PropertyPage> searchProperties(String query, Double maxPrice, Double maxSize, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("id"));
+        return Mono.zip(
+                        propertyRepository.search(query, maxPrice, maxSize, pageable).collectList(),
+                        propertyRepository.countSearch(query, maxPrice, maxSize))
+                .map(tuple -> PropertyPage.of(tuple.getT1(), page, size, tuple.getT2()));
+    }
+
+    /**
+     * Streams every property matching the filters, honouring the subscriber's demand.
+     *
+     * @param query    The search query (optional).
+     * @param maxPrice The maximum price (optional).
+     * @param maxSize  The maximum size (optional).
+     * @return The matching properties, ordered by ID.
+     */
+    public Flux<Property> streamProperties(String query, Double maxPrice, Double maxSize) {
+        return propertyRepository.streamSearch(query, maxPrice, maxSize);
+    }
+
+    /**
+     * Retrieves a property by its ID.
+     *
+     * @param id The ID of the property.
+     * @return The property, or empty if it does not exist.
+     */
+    public Mono<Property> getPropertyById(Long id) {
+        return propertyRepository.findById(id);
+    }
+
+    /**
+     * Creates a new property.
+     *
+     * @param property The property to create.
+     * @return The saved property.
+     */
+    public Mono<Property> createProperty(Property property) {
+        property.setId(null);
+        property.setVersion(null);
+        return propertyRepository.save(property);
+    }
+
+    /**
+     * Updates an existing property with a single versioned UPDATE statement.
+     *
+     * @param id              The ID of the property to update.
+     * @param propertyDetails The new values; its version, if present, must match the stored one.
+     * @return The updated property, or an error: RuntimeException if the property does not exist,
+     * OptimisticLockingFailureException if it was modified since the given version.
+     */
+    public Mono<Property> updateProperty(Long id, Property propertyDetails) {
+        return propertyRepository.updateFields(id, propertyDetails.getAddress(), propertyDetails.getPrice(),
+                        propertyDetails.getSize(), propertyDetails.getDescription(), propertyDetails.getVersion())
+                .flatMap(updated -> updated > 0
+                        ? propertyRepository.findById(id)
+                        : propertyRepository.existsById(id).flatMap(exists -> exists
+                                ? Mono.error(new OptimisticLockingFailureException("Property " + id + " was modified"))
+                                : Mono.error(new RuntimeException("Propiedad no encontrada"))));
+    }
+
+    /**
+     * Deletes a property by its ID.
+     *
+     * @param id The ID of the property to delete.
+     * @return Completion signal.
+     */
+    public Mono<Void> deleteProperty(Long id) {
+        return propertyRepository.deleteById(id);
+    }
+}
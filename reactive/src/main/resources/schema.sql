@@ -0,0 +1,14 @@
+CREATE SEQUENCE IF NOT EXISTS property_seq;
+
+CREATE TABLE IF NOT EXISTS properties (
+    id BIGINT DEFAULT NEXT VALUE FOR property_seq PRIMARY KEY,
+    address VARCHAR(255) NOT NULL,
+    price DOUBLE PRECISION NOT NULL,
+    size DOUBLE PRECISION NOT NULL,
+    description VARCHAR(255),
+    version BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_properties_price ON properties (price);
+CREATE INDEX IF NOT EXISTS idx_properties_size ON properties (size);
+CREATE INDEX IF NOT EXISTS idx_properties_price_size ON properties (price, size);
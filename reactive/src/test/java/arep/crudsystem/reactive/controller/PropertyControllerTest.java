@@ -0,0 +1,187 @@
+package arep.crudsystem.reactive.controller;
+
+import arep.crudsystem.reactive.model.Property;
+import arep.crudsystem.reactive.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "auth.token.secret=" + PropertyControllerTest.SECRET)
+@AutoConfigureWebTestClient
+class PropertyControllerTest {
+
+    static final String SECRET = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        propertyRepository.deleteAll().block();
+        webTestClient = webTestClient.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin", 3600))
+                .build();
+    }
+
+    @Test
+    void testCreateAndGetProperty() {
+        Property created = webTestClient.post().uri("/api/properties")
+                .bodyValue(property("Calle 1", 100.0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Property.class).returnResult().getResponseBody();
+
+        assertNotNull(created.getId());
+        webTestClient.get().uri("/api/properties/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.address").isEqualTo("Calle 1");
+    }
+
+    @Test
+    void testGetPropertyNotFound() {
+        webTestClient.get().uri("/api/properties/999999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testSearchReturnsPage() {
+        save("Calle 1", 100.0, "Casa");
+        save("Calle 2", 200.0, "Casa");
+        save("Calle 3", 300.0, "Apartamento");
+
+        webTestClient.get().uri("/api/properties/search?query=Casa&page=0&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.totalElements").isEqualTo(2)
+                .jsonPath("$.totalPages").isEqualTo(2)
+                .jsonPath("$.last").isEqualTo(false);
+    }
+
+    @Test
+    void testSearchStreamsNdjson() {
+        save("Calle 1", 100.0, "Casa");
+        save("Calle 2", 200.0, "Casa");
+        save("Calle 3", 300.0, "Apartamento");
+
+        List<Property> streamed = webTestClient.get().uri("/api/properties/search?maxPrice=250")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Property.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("Calle 1", "Calle 2"), streamed.stream().map(Property::getAddress).toList());
+    }
+
+    @Test
+    void testUpdateWithStaleVersionReturnsConflict() {
+        Property saved = save("Calle 1", 100.0, "Casa");
+        Property details = property("Calle 1B", 150.0);
+        details.setVersion(saved.getVersion());
+
+        webTestClient.put().uri("/api/properties/{id}", saved.getId())
+                .bodyValue(details)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(saved.getVersion() + 1);
+        webTestClient.put().uri("/api/properties/{id}", saved.getId())
+                .bodyValue(details)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void testUpdateWithoutVersionIsRejected() {
+        Property saved = save("Calle 1", 100.0, "Casa");
+
+        webTestClient.put().uri("/api/properties/{id}", saved.getId())
+                .bodyValue(property("Calle 1B", 150.0))
+                .exchange()
+                .expectStatus().isEqualTo(428);
+        assertEquals("Calle 1", propertyRepository.findById(saved.getId()).block().getAddress());
+    }
+
+    @Test
+    void testWritesAndExportNeedAValidToken() throws Exception {
+        Property saved = save("Calle 1", 100.0, "Casa");
+        WebTestClient anonymous = webTestClient.mutate()
+                .defaultHeaders(headers -> headers.remove(HttpHeaders.AUTHORIZATION))
+                .build();
+        WebTestClient expired = webTestClient.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin", -60))
+                .build();
+
+        anonymous.post().uri("/api/properties").bodyValue(property("Calle 2", 200.0))
+                .exchange().expectStatus().isUnauthorized();
+        expired.delete().uri("/api/properties/{id}", saved.getId())
+                .exchange().expectStatus().isUnauthorized();
+        anonymous.get().uri("/api/properties/export")
+                .exchange().expectStatus().isUnauthorized();
+        anonymous.get().uri("/api/properties/{id}", saved.getId())
+                .exchange().expectStatus().isOk();
+        assertEquals(Boolean.TRUE, propertyRepository.existsById(saved.getId()).block());
+    }
+
+    @Test
+    void testDeleteProperty() {
+        Property saved = save("Calle 1", 100.0, "Casa");
+
+        webTestClient.delete().uri("/api/properties/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        assertEquals(Boolean.FALSE, propertyRepository.existsById(saved.getId()).block());
+    }
+
+    private Property save(String address, double price, String description) {
+        Property property = property(address, price);
+        property.setDescription(description);
+        return propertyRepository.save(property).block();
+    }
+
+    /**
+     * Signs a token the way the main application's {@code /auth/login} does.
+     */
+    private static String token(String username, long secondsValid) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        long expiresAt = Instant.now().getEpochSecond() + secondsValid;
+        String payload = encoder.encodeToString(("{\"sub\":\"" + username + "\",\"exp\":" + expiresAt + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(SECRET), "HmacSHA256"));
+        String signingInput = header + "." + payload;
+        return signingInput + "." + encoder.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static Property property(String address, double price) {
+        Property property = new Property();
+        property.setAddress(address);
+        property.setPrice(price);
+        property.setSize(50.0);
+        return property;
+    }
+}
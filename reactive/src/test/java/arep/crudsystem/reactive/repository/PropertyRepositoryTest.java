@@ -0,0 +1,80 @@
+package arep.crudsystem.reactive.repository;
+
+import arep.crudsystem.reactive.model.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataR2dbcTest
+class PropertyRepositoryTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @BeforeEach
+    void setUp() {
+        propertyRepository.deleteAll()
+                .thenMany(Flux.just(
+                        property("Calle 1", 100.0, 50.0, "Casa con jardín"),
+                        property("Calle 2", 200.0, 80.0, "Apartamento"),
+                        property("Avenida 3", 300.0, 120.0, "Casa grande")))
+                .concatMap(propertyRepository::save)
+                .blockLast();
+    }
+
+    @Test
+    void testSearchAppliesOnlySuppliedFilters() {
+        StepVerifier.create(propertyRepository.search("Casa", 250.0, null, PageRequest.of(0, 10, Sort.by("id"))))
+                .assertNext(property -> assertEquals("Calle 1", property.getAddress()))
+                .verifyComplete();
+        StepVerifier.create(propertyRepository.countSearch(null, null, 100.0))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testStreamSearchHonoursDemand() {
+        StepVerifier.create(propertyRepository.streamSearch(null, null, null), 1)
+                .assertNext(property -> assertEquals("Calle 1", property.getAddress()))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void testUpdateFieldsChecksVersion() {
+        Property saved = propertyRepository.findAll(Sort.by("id")).blockFirst();
+
+        StepVerifier.create(propertyRepository.updateFields(saved.getId(), "Nueva", 1.0, 2.0, null, saved.getVersion() + 5))
+                .expectNext(0)
+                .verifyComplete();
+        StepVerifier.create(propertyRepository.updateFields(saved.getId(), "Nueva", 1.0, 2.0, null, saved.getVersion()))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(propertyRepository.updateFields(saved.getId(), "Otra", 1.0, 2.0, null, null))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(propertyRepository.findById(saved.getId()))
+                .assertNext(property -> {
+                    assertEquals("Otra", property.getAddress());
+                    assertEquals(saved.getVersion() + 2, property.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    private static Property property(String address, double price, double size, String description) {
+        Property property = new Property();
+        property.setAddress(address);
+        property.setPrice(price);
+        property.setSize(size);
+        property.setDescription(description);
+        return property;
+    }
+}
@@ -0,0 +1,172 @@
+package arep.crudsystem.benchmark;
+
+import arep.crudsystem.CrudsystemApplication;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.search.IndexedPropertySearchEngine;
+import arep.crudsystem.service.PropertyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the {@link PropertyService} hot paths against an in-memory H2 database.
+ * Each trial boots the application without a web server and seeds {@code rows} properties.
+ * Both caches are sized to zero so the numbers reflect the search engine and the database,
+ * not cache hits.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}; results are written to
+ * {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyServiceBenchmark {
+
+    private static final String[] QUERIES = {"Calle 12", "jardín", "Avenida 9", "terraza"};
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private PropertyService propertyService;
+
+    // Version of each seeded property by ID, carried forward from each update like a client would
+    private long[] versions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudsystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh-" + rows + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--property.cache.maximum-size=0",
+                        "--property.search-cache.maximum-size=0",
+                        "--logging.level.root=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+        versions = new long[rows + 1];
+        jdbcTemplate.query("SELECT id, version FROM properties WHERE id <= ?",
+                row -> { versions[(int) row.getLong("id")] = row.getLong("version"); }, rows);
+        context.getBeanProvider(IndexedPropertySearchEngine.class).ifAvailable(IndexedPropertySearchEngine::rebuild);
+        propertyService = context.getBean(PropertyService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Property> getAllProperties() {
+        return propertyService.getAllProperties(ThreadLocalRandom.current().nextInt(rows / 20), 20);
+    }
+
+    @Benchmark
+    public Page<Property> searchByText() {
+        return propertyService.searchProperties(randomQuery(), null, null, 0, 20);
+    }
+
+    @Benchmark
+    public Page<Property> searchByMaxPrice() {
+        return propertyService.searchProperties(null, randomPrice(), null, 0, 20);
+    }
+
+    @Benchmark
+    public Page<Property> searchByMaxSize() {
+        return propertyService.searchProperties(null, null, randomSize(), 0, 20);
+    }
+
+    @Benchmark
+    public Page<Property> searchByPriceAndSize() {
+        return propertyService.searchProperties(null, randomPrice(), randomSize(), 0, 20);
+    }
+
+    @Benchmark
+    public Page<Property> searchByAllFilters() {
+        return propertyService.searchProperties(randomQuery(), randomPrice(), randomSize(), 0, 20);
+    }
+
+    @Benchmark
+    public Optional<Property> getPropertyById() {
+        return propertyService.getPropertyById(randomId());
+    }
+
+    @Benchmark
+    public Property createProperty() {
+        return propertyService.createProperty(property("Calle nueva", 150_000.0, 80.0));
+    }
+
+    @Benchmark
+    public Property updateProperty() {
+        long id = randomId();
+        Property details = property("Calle " + id, 100_000.0 + id % 900_000, 30.0 + id % 300);
+        details.setVersion(versions[(int) id]);
+        Property updated = propertyService.updateProperty(id, details);
+        versions[(int) id] = updated.getVersion();
+        return updated;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        String[] streets = {"Calle", "Avenida", "Carrera", "Transversal"};
+        String[] descriptions = {"Casa con jardín", "Apartamento con terraza", "Estudio", "Casa esquinera"};
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(new Object[]{id, streets[(int) (id % streets.length)] + " " + id, 100_000.0 + id % 900_000,
+                    30.0 + id % 300, descriptions[(int) (id % descriptions.length)], 0L});
+            if (batch.size() == 10_000 || id == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO properties (id, address, price, size, description, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        // New properties get Snowflake IDs, which are far above the seeded ones
+    }
+
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    private static String randomQuery() {
+        return QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)];
+    }
+
+    private static double randomPrice() {
+        return 100_000.0 + ThreadLocalRandom.current().nextInt(900_000);
+    }
+
+    private static double randomSize() {
+        return 30.0 + ThreadLocalRandom.current().nextInt(300);
+    }
+
+    private static Property property(String address, double price, double size) {
+        Property property = new Property();
+        property.setAddress(address);
+        property.setPrice(price);
+        property.setSize(size);
+        property.setDescription("Propiedad de prueba");
+        return property;
+    }
+}
@@ -0,0 +1,50 @@
+package arep.crudsystem.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache configuration.
+ * Caches are bounded Caffeine caches that evict by size and by time-to-live,
+ * and record hit/miss/eviction statistics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache of Property entities keyed by ID.
+     */
+    public static final String PROPERTIES_CACHE = "properties";
+
+    /**
+     * Cache of search result pages keyed by normalized search parameters.
+     */
+    public static final String SEARCH_CACHE = "propertySearch";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${property.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${property.cache.ttl:10m}") Duration ttl,
+                                     @Value("${property.search-cache.maximum-size:1000}") long searchMaximumSize,
+                                     @Value("${property.search-cache.ttl:1m}") Duration searchTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PROPERTIES_CACHE, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(SEARCH_CACHE, Caffeine.newBuilder()
+                .maximumSize(searchMaximumSize)
+                .expireAfterWrite(searchTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
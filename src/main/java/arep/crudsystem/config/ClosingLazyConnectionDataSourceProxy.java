@@ -0,0 +1,23 @@
+package arep.crudsystem.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lazy connection proxy in front of a routing DataSource: connections are only fetched with the first
+ * statement, once the routing decision can be taken. Closing it closes the pools behind it.
+ */
+class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+
+    ClosingLazyConnectionDataSourceProxy(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public void close() throws IOException {
+        ((Closeable) obtainTargetDataSource()).close();
+    }
+}
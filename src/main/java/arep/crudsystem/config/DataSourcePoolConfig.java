@@ -0,0 +1,66 @@
+package arep.crudsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Connection pool sizing for the production profiles.
+ * Instead of Hikari's fixed default of 10 connections, the pool is sized from the number of cores
+ * the database can use: {@code cores * core-multiplier + spindles}, following HikariCP's pool sizing
+ * guideline. More connections than the database can run in parallel only add queueing and context
+ * switches inside the database. The pool is kept at a fixed size (minimum idle = maximum), so no
+ * connection is opened while serving a request. An explicit {@code spring.datasource.hikari.maximum-pool-size}
+ * always wins.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.pool.auto-size", havingValue = "true")
+public class DataSourcePoolConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourcePoolConfig.class);
+
+    /**
+     * Sizes each Hikari pool before it starts.
+     * Static so that it is registered before the DataSource is created; it runs before initialization,
+     * after Spring Boot has bound the {@code spring.datasource.hikari} properties and before the SQL
+     * accounting proxy wraps the pool.
+     */
+    @Bean
+    public static BeanPostProcessor hikariPoolSizePostProcessor(Environment environment) {
+        int cores = environment.getProperty("datasource.pool.cores", Integer.class,
+                Runtime.getRuntime().availableProcessors());
+        int coreMultiplier = environment.getProperty("datasource.pool.core-multiplier", Integer.class, 2);
+        int spindles = environment.getProperty("datasource.pool.spindles", Integer.class, 1);
+        boolean explicitSize = environment.containsProperty("spring.datasource.hikari.maximum-pool-size");
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && !explicitSize) {
+                    int size = poolSize(cores, coreMultiplier, spindles);
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    log.info("Connection pool {} sized to {} ({} cores x {} + {} spindles)",
+                            beanName, size, cores, coreMultiplier, spindles);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Computes the pool size for the given database resources.
+     *
+     * @param cores          The number of cores available to the database.
+     * @param coreMultiplier The connections per core, covering the time a connection waits on I/O or the network.
+     * @param spindles       The number of disks the database can read from in parallel (1 for an SSD).
+     * @return The number of connections, at least 2.
+     */
+    static int poolSize(int cores, int coreMultiplier, int spindles) {
+        return Math.max(2, cores * coreMultiplier + spindles);
+    }
+}
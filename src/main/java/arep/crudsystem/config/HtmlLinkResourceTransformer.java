@@ -0,0 +1,47 @@
+package arep.crudsystem.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceTransformerSupport;
+import org.springframework.web.servlet.resource.TransformedResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the {@code src} and {@code href} links of static HTML pages to their versioned URLs
+ * (e.g. {@code home.js} to {@code home-<content hash>.js}), the way {@code CssLinkResourceTransformer}
+ * does for stylesheets. Absolute and external links are left untouched.
+ */
+class HtmlLinkResourceTransformer extends ResourceTransformerSupport {
+
+    private static final Pattern LINK = Pattern.compile("\\b(src|href)=\"([^\"]+)\"");
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain chain)
+            throws IOException {
+        resource = chain.transform(request, resource);
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(".html")) {
+            return resource;
+        }
+        String content = new String(resource.getContentAsByteArray(), StandardCharsets.UTF_8);
+        Matcher matcher = LINK.matcher(content);
+        StringBuilder result = new StringBuilder(content.length());
+        while (matcher.find()) {
+            String link = matcher.group(2);
+            String versioned = isLocal(link) ? resolveUrlPath(link, request, resource, chain) : null;
+            String replacement = matcher.group(1) + "=\"" + (versioned != null ? versioned : link) + "\"";
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return new TransformedResource(resource, result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isLocal(String link) {
+        return !link.contains(":") && !link.startsWith("//") && !link.startsWith("#");
+    }
+}
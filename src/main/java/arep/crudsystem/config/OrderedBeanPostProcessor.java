@@ -0,0 +1,15 @@
+package arep.crudsystem.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Bean post-processor that runs before the unordered ones, such as the SQL accounting proxy.
+ */
+interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+
+    @Override
+    default int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,99 @@
+package arep.crudsystem.config;
+
+import arep.crudsystem.replica.ReadYourWritesFilter;
+import arep.crudsystem.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read replicas: with {@code datasource.replicas.urls} set, read-only transactions are served by the replicas
+ * through a {@link ReplicaRoutingDataSource} and writes stay on the primary DataSource.
+ * Clients that just wrote are pinned to the primary by {@link ReadYourWritesFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    /**
+     * Puts the routing DataSource in front of the primary pool.
+     * Static so that it is registered before the DataSource is created. It is ordered so that it runs before
+     * the SQL accounting proxy wraps the DataSource, which then accounts the statements of the replicas too.
+     */
+    @Bean
+    public static BeanPostProcessor readReplicaRoutingPostProcessor(Environment environment) {
+        String[] urls = environment.getProperty("datasource.replicas.urls", String[].class, new String[0]);
+        String username = environment.getProperty("datasource.replicas.username");
+        String password = environment.getProperty("datasource.replicas.password");
+        Duration connectionTimeout = environment.getProperty("datasource.replicas.connection-timeout",
+                Duration.class, Duration.ofSeconds(1));
+        Duration healthCheckInterval = environment.getProperty("datasource.replicas.health-check-interval",
+                Duration.class, Duration.ofSeconds(5));
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource primary) || urls.length == 0) {
+                    return bean;
+                }
+                if (environment.containsProperty("datasource.shards.urls")) {
+                    throw new IllegalStateException("Read replicas cannot be combined with datasource.shards.urls");
+                }
+                Map<String, DataSource> replicas = new LinkedHashMap<>();
+                for (int i = 0; i < urls.length; i++) {
+                    // Same driver, pool size and driver properties as the primary
+                    HikariConfig config = new HikariConfig();
+                    primary.copyStateTo(config);
+                    config.setPoolName((primary.getPoolName() != null ? primary.getPoolName() : beanName)
+                            + "-replica-" + (i + 1));
+                    config.setJdbcUrl(urls[i].trim());
+                    if (username != null) {
+                        config.setUsername(username);
+                        config.setPassword(password);
+                    }
+                    config.setReadOnly(true);
+                    // A replica that is down must neither stop the startup nor hold reads for long
+                    config.setConnectionTimeout(connectionTimeout.toMillis());
+                    config.setInitializationFailTimeout(-1);
+                    replicas.put(config.getPoolName(), new HikariDataSource(config));
+                }
+                return new ClosingLazyConnectionDataSourceProxy(
+                        new ReplicaRoutingDataSource(primary, replicas, healthCheckInterval, connectionTimeout));
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                dataSource.unwrap(ReplicaRoutingDataSource.class).bindTo(registry);
+            } catch (SQLException e) {
+                throw new IllegalStateException("The DataSource does not route to read replicas", e);
+            }
+        };
+    }
+}
@@ -1,25 +1,73 @@
 package arep.crudsystem.config;
 
+import arep.crudsystem.security.LoginRateLimitFilter;
+import arep.crudsystem.security.LoginRateLimiter;
+import arep.crudsystem.security.TokenAuthenticationFilter;
+import arep.crudsystem.security.TokenService;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private TokenService tokenService;
+
+    /**
+     * Actuator endpoints (health, prometheus) are only served on the management port,
+     * which is bound to the loopback interface and never exposed by the balancer.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+        return http.build();
+    }
+
+    /**
+     * Anyone may read properties, but changing them, the bulk endpoints and the full export
+     * need a Bearer token from {@code /auth/login}; requests without one get a 401 status.
+     */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/", "/auth/**", "/api/properties/**", "/api/properties/", "/api/hello", "home.html", "index.html", "script.js", "home.js", "home.css", "styles.css", "/images/corazon.png", "/images/gato1.png", "/images/login.png", "/images/logo.png" ).permitAll()
+                        // The second dispatch of a streamed response (export, events) was authorized on the first
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/properties/batch", "/api/properties/export").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/properties/**", "/api/properties/").permitAll()
+                        .requestMatchers("/", "/auth/**", "/api/hello").permitAll()
+                        // Static files are requested under fingerprinted names such as home-<hash>.js
+                        .requestMatchers("/*.html", "/*.js", "/*.css", "/images/*.png").permitAll()
                         .anyRequest().authenticated()
                 )
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
                 ;
         return http.build();
     }
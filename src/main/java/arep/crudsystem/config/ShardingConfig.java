@@ -0,0 +1,125 @@
+package arep.crudsystem.config;
+
+import arep.crudsystem.sharding.PropertyShards;
+import arep.crudsystem.sharding.ShardRoutingDataSource;
+import arep.crudsystem.sharding.SnowflakeIdentifierGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Property IDs and sharding of the properties table.
+ * IDs always come from a {@link arep.crudsystem.sharding.SnowflakeIdGenerator} with the worker ID
+ * {@code property.id.worker-id}. With {@code datasource.shards.urls} set, the primary pool becomes shard 0
+ * of a {@link ShardRoutingDataSource} and each listed database another shard; see {@link PropertyShards}.
+ */
+@Configuration
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    private static final Set<String> SCHEMA_CREATING_ACTIONS = Set.of("create", "create-drop", "create-only", "update");
+
+    @Bean
+    public HibernatePropertiesCustomizer propertyIdWorkerCustomizer(@Value("${property.id.worker-id:0}") int workerId) {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.WORKER_ID_SETTING, workerId);
+    }
+
+    /**
+     * Puts the shard routing DataSource in front of the primary pool and creates the schema on new shards.
+     * Static so that it is registered before the DataSource is created. It is ordered so that it runs before
+     * the SQL accounting proxy wraps the DataSource, which then accounts the statements of every shard.
+     */
+    @Bean
+    public static BeanPostProcessor shardRoutingPostProcessor(Environment environment) {
+        String[] urls = environment.getProperty("datasource.shards.urls", String[].class, new String[0]);
+        String username = environment.getProperty("datasource.shards.username");
+        String password = environment.getProperty("datasource.shards.password");
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (urls.length == 0) {
+                    return bean;
+                }
+                if (bean instanceof HikariDataSource primary) {
+                    // An open session holds its first connection, and so its first shard, for the whole request
+                    if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+                        throw new IllegalStateException("Sharding requires spring.jpa.open-in-view=false");
+                    }
+                    if (environment.containsProperty("datasource.replicas.urls")) {
+                        throw new IllegalStateException("Sharding cannot be combined with datasource.replicas.urls");
+                    }
+                    List<DataSource> shards = new ArrayList<>();
+                    shards.add(primary);
+                    for (int i = 0; i < urls.length; i++) {
+                        // Same driver, pool size and driver properties as the primary
+                        HikariConfig config = new HikariConfig();
+                        primary.copyStateTo(config);
+                        config.setPoolName((primary.getPoolName() != null ? primary.getPoolName() : beanName)
+                                + "-shard-" + (i + 1));
+                        config.setJdbcUrl(urls[i].trim());
+                        if (username != null) {
+                            config.setUsername(username);
+                            config.setPassword(password);
+                        }
+                        shards.add(new HikariDataSource(config));
+                    }
+                    return new ClosingLazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+                }
+                if (bean instanceof EntityManagerFactoryInfo info) {
+                    createSchemaOnShards(info.getNativeEntityManagerFactory().unwrap(SessionFactory.class),
+                            urls.length + 1);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Hibernate only manages the schema of shard 0; the tables are created on the other shards that lack them.
+     * Later schema changes must be applied to every shard.
+     */
+    private static void createSchemaOnShards(SessionFactory sessionFactory, int count) {
+        Object action = sessionFactory.getProperties().get(AvailableSettings.HBM2DDL_AUTO);
+        if (action == null || !SCHEMA_CREATING_ACTIONS.contains(action.toString())) {
+            return;
+        }
+        PropertyShards.forEachShardOf(count, shard -> {
+            if (shard > 0 && !hasPropertiesTable(sessionFactory)) {
+                log.info("Creating the schema on shard {}", shard);
+                sessionFactory.getSchemaManager().exportMappedObjects(true);
+            }
+        });
+    }
+
+    private static boolean hasPropertiesTable(SessionFactory sessionFactory) {
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeQuery("SELECT 1 FROM properties WHERE 1 = 0").close();
+                }
+            });
+            return true;
+        } catch (PersistenceException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package arep.crudsystem.config;
+
+import arep.crudsystem.sql.SqlAccountingFilter;
+import arep.crudsystem.sql.SqlAccountingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL accounting: every DataSource is wrapped in a datasource-proxy that reports
+ * executed statements to {@link SqlAccountingListener}, and {@link SqlAccountingFilter}
+ * attributes them to HTTP requests.
+ * Off unless {@code sql.accounting.enabled=true}, which the default (development) configuration sets
+ * and the production profiles do not.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.accounting.enabled", havingValue = "true")
+public class SqlAccountingConfig {
+
+    /**
+     * Wraps each DataSource bean with the accounting proxy.
+     * Static so that it is registered before the DataSource is created.
+     */
+    @Bean
+    public static BeanPostProcessor sqlAccountingDataSourcePostProcessor(Environment environment) {
+        long slowQueryMillis = environment.getProperty("sql.accounting.slow-query-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlAccountingListener(slowQueryMillis))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlAccountingFilter> sqlAccountingFilter(
+            @Value("${sql.accounting.max-statements:10}") int maxStatements,
+            @Value("${sql.accounting.slow-request-ms:500}") long slowRequestMillis,
+            @Value("${sql.accounting.n-plus-one-threshold:5}") int nPlusOneThreshold,
+            @Value("${sql.accounting.max-logged-statements:50}") int maxLoggedStatements) {
+        FilterRegistrationBean<SqlAccountingFilter> registration = new FilterRegistrationBean<>(
+                new SqlAccountingFilter(maxStatements, slowRequestMillis, nPlusOneThreshold, maxLoggedStatements));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,50 @@
+package arep.crudsystem.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Serves the static front end with fingerprinted URLs.
+ * Scripts, stylesheets and images are requested with a content hash in their name, so they can be
+ * cached for a year without revalidation; a new build changes the hash and therefore the URL.
+ * HTML pages keep their plain URLs, are revalidated on every use and have their links rewritten
+ * to the current hashes. Assets with a precompressed sibling ({@code .br} or {@code .gz}) are served
+ * in that encoding to clients that accept it, instead of being gzipped on every response.
+ */
+@Configuration
+public class StaticResourceConfig {
+
+    private static final String STATIC_LOCATION = "classpath:/static/";
+
+    @Bean
+    public WebMvcConfigurer staticResourceConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addResourceHandlers(ResourceHandlerRegistry registry) {
+                registry.addResourceHandler("/*.html")
+                        .addResourceLocations(STATIC_LOCATION)
+                        .setCacheControl(CacheControl.noCache())
+                        .resourceChain(true)
+                        .addResolver(contentVersionResolver())
+                        .addTransformer(new HtmlLinkResourceTransformer());
+                registry.addResourceHandler("/**")
+                        .addResourceLocations(STATIC_LOCATION)
+                        .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                        .resourceChain(true)
+                        .addResolver(new EncodedResourceResolver())
+                        .addResolver(contentVersionResolver());
+            }
+        };
+    }
+
+    private static VersionResourceResolver contentVersionResolver() {
+        return new VersionResourceResolver().addContentVersionStrategy("/**");
+    }
+}
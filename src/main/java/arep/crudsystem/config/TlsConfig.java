@@ -0,0 +1,34 @@
+package arep.crudsystem.config;
+
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * TLS session settings for the HTTPS connector.
+ * Spring Boot configures protocols, cipher suites and the keystore, but neither the server-side session
+ * cache nor the cipher order, so this sizes the cache explicitly and makes the server's suite preference win.
+ * Clients that reconnect within the session timeout resume their session (abbreviated handshake, no
+ * certificate signature or key exchange) instead of paying a full handshake.
+ */
+@Configuration
+public class TlsConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tlsSessionCustomizer(
+            @Value("${tls.session.cache-size:20480}") int sessionCacheSize,
+            @Value("${tls.session.timeout:24h}") Duration sessionTimeout) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (SSLHostConfig sslHostConfig : connector.findSslHostConfigs()) {
+                sslHostConfig.setHonorCipherOrder(true);
+                sslHostConfig.setSessionCacheSize(sessionCacheSize);
+                sslHostConfig.setSessionTimeout((int) sessionTimeout.toSeconds());
+            }
+        });
+    }
+}
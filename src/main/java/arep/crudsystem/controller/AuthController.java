@@ -1,6 +1,7 @@
 package arep.crudsystem.controller;
 
 import arep.crudsystem.model.User;
+import arep.crudsystem.security.TokenService;
 import arep.crudsystem.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -17,6 +18,9 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenService tokenService;
+
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestParam String username, @RequestParam String password) {
         try {
@@ -35,6 +39,9 @@ public class AuthController {
                 Map<String, String> response = new HashMap<>();
                 response.put("message", "Login successful");
                 response.put("redirectUrl", "https://taller6arep2025apache.duckdns.org/home.html");
+                response.put("token", tokenService.issue(username));
+                response.put("tokenType", "Bearer");
+                response.put("expiresIn", Long.toString(tokenService.getTtl().toSeconds()));
                 return ResponseEntity.ok(response);
             } else {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid credentials"));
@@ -0,0 +1,66 @@
+package arep.crudsystem.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the values of a newline-delimited JSON (NDJSON) stream, one line at a time.
+ * Blank lines are skipped. A line that cannot be parsed makes {@link #next()} throw
+ * {@link IllegalArgumentException}, and iteration can continue with the following line.
+ *
+ * @param <T> The type of the values.
+ */
+class NdjsonIterator<T> implements Iterator<T> {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private String nextLine;
+    private int lineNumber;
+
+    NdjsonIterator(InputStream input, ObjectReader objectReader) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+                if (!line.isBlank()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        try {
+            return objectReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON on line " + lineNumber + ": " + e.getOriginalMessage());
+        }
+    }
+}
@@ -1,35 +1,110 @@
 package arep.crudsystem.controller;
 
+import arep.crudsystem.event.PropertyEventBroadcaster;
 import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertyFields;
+import arep.crudsystem.pagination.CursorPage;
+import arep.crudsystem.pagination.PropertyCursor;
+import arep.crudsystem.pagination.PropertySortKey;
+import arep.crudsystem.pagination.SlicePage;
+import arep.crudsystem.service.BatchResult;
+import arep.crudsystem.service.ExportFormat;
+import arep.crudsystem.service.PropertyBatchService;
+import arep.crudsystem.service.PropertyExportService;
 import arep.crudsystem.service.PropertyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * REST controller for managing properties.
  * This controller provides endpoints for CRUD operations on properties,
  * including pagination and search functionality.
+ * Listing and search support both offset pagination ({@code page}/{@code size}) and
+ * keyset pagination ({@code after}/{@code size}, with an empty {@code after} for the first page).
+ * Offset pages accept {@code fields=summary} to return only the ID, address, price and size of each property.
+ * Pages hold at most {@code property.pagination.max-size} properties, and offset pages may start at most
+ * {@code property.pagination.max-offset} properties in; deeper pages are read with {@code after}.
+ * Listings are tagged with the listing version, which changes on every write, so a client revalidating
+ * a page gets a 304 status before any query runs. Clients that keep a listing open subscribe to
+ * {@code /events} and receive each change as it commits instead of polling the listing.
  */
 @RestController
 @RequestMapping("/api/properties")
 public class PropertyController {
 
+    private static final CacheControl API_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private PropertyService propertyService;
 
+    @Autowired
+    private PropertyBatchService propertyBatchService;
+
+    @Autowired
+    private PropertyExportService propertyExportService;
+
+    @Autowired
+    private PropertyEventBroadcaster eventBroadcaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${property.pagination.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${property.pagination.max-offset:10000}")
+    private long maxOffset;
+
+    @Value("${property.export.timeout:1h}")
+    private Duration exportTimeout;
+
     /**
      * Retrieves all properties with pagination.
      *
-     * @param page The page number to retrieve (default is 0).
-     * @param size The number of properties per page (default is 5).
+     * @param page    The page number to retrieve (default is 0).
+     * @param size    The number of properties per page (default is 5).
+     * @param fields  The fields to return, "all" or "summary" (default is "all").
+     * @param request The current request, used to answer conditional requests.
      * @return A page of properties.
      */
     @GetMapping
-    public Page<Property> getAllProperties(@RequestParam(defaultValue = "0") int page,
-                                           @RequestParam(defaultValue = "5") int size) {
-        return propertyService.getAllProperties(page, size);
+    public Page<?> getAllProperties(@RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "5") int size,
+                                    @RequestParam(defaultValue = "all") String fields,
+                                    ServletWebRequest request) {
+        checkPage(page, size);
+        if (isNotModified(request, propertyService.getListingVersion())) {
+            return null;
+        }
+        return switch (resolveFields(fields)) {
+            case ALL -> propertyService.getAllProperties(page, size);
+            case SUMMARY -> propertyService.searchPropertySummaries(null, null, null, page, size);
+        };
     }
 
     /**
@@ -40,19 +115,254 @@ public class PropertyController {
      * @param maxSize  The maximum size to filter properties (optional).
      * @param page     The page number to retrieve (default is 0).
      * @param size     The number of properties per page (default is 5).
+     * @param fields   The fields to return, "all" or "summary" (default is "all").
+     * @param request  The current request, used to answer conditional requests.
      * @return A page of properties matching the filters.
      */
     @GetMapping("/search")
-    public Page<Property> searchProperties(@RequestParam(required = false) String query,
-                                           @RequestParam(required = false) Double maxPrice,
-                                           @RequestParam(required = false) Double maxSize,
-                                           @RequestParam(defaultValue = "0") int page,
-                                           @RequestParam(defaultValue = "5") int size) {
-        return propertyService.searchProperties(query, maxPrice, maxSize, page, size);
+    public Page<?> searchProperties(@RequestParam(required = false) String query,
+                                    @RequestParam(required = false) Double maxPrice,
+                                    @RequestParam(required = false) Double maxSize,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "5") int size,
+                                    @RequestParam(defaultValue = "all") String fields,
+                                    ServletWebRequest request) {
+        checkPage(page, size);
+        if (isNotModified(request, propertyService.getListingVersion())) {
+            return null;
+        }
+        return switch (resolveFields(fields)) {
+            case ALL -> propertyService.searchProperties(query, maxPrice, maxSize, page, size);
+            case SUMMARY -> propertyService.searchPropertySummaries(query, maxPrice, maxSize, page, size);
+        };
+    }
+
+    /**
+     * Retrieves all properties with pagination but without a total count ({@code withTotal=false}).
+     * Only the page query is executed; {@code hasNext} tells whether there is a next page.
+     *
+     * @param page    The page number to retrieve (default is 0).
+     * @param size    The number of properties per page (default is 5).
+     * @param fields  The fields to return, "all" or "summary" (default is "all").
+     * @param request The current request, used to answer conditional requests.
+     * @return A page of properties without total.
+     */
+    @GetMapping(params = {"withTotal=false", "!after"})
+    public SlicePage<?> getAllPropertiesWithoutTotal(@RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "5") int size,
+                                                     @RequestParam(defaultValue = "all") String fields,
+                                                     ServletWebRequest request) {
+        checkPage(page, size);
+        if (isNotModified(request, propertyService.getListingVersion())) {
+            return null;
+        }
+        return switch (resolveFields(fields)) {
+            case ALL -> SlicePage.of(propertyService.searchPropertiesSlice(null, null, null, page, size));
+            case SUMMARY -> SlicePage.of(propertyService.searchPropertySummariesSlice(null, null, null, page, size));
+        };
+    }
+
+    /**
+     * Retrieves all properties with pagination and an approximate total ({@code withTotal=approximate}).
+     * The total comes from a periodically refreshed count and may lag behind recent writes.
+     *
+     * @param page    The page number to retrieve (default is 0).
+     * @param size    The number of properties per page (default is 5).
+     * @param fields  The fields to return, "all" or "summary" (default is "all").
+     * @param request The current request, used to answer conditional requests.
+     * @return A page of properties.
+     */
+    @GetMapping(params = {"withTotal=approximate", "!after"})
+    public Page<?> getAllPropertiesWithApproximateTotal(@RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "5") int size,
+                                                        @RequestParam(defaultValue = "all") String fields,
+                                                        ServletWebRequest request) {
+        checkPage(page, size);
+        String version = propertyService.getListingVersion();
+        Page<?> result = switch (resolveFields(fields)) {
+            case ALL -> propertyService.searchPropertiesWithApproximateTotal(null, null, null, page, size);
+            case SUMMARY -> propertyService.searchPropertySummariesWithApproximateTotal(null, null, null, page, size);
+        };
+        // The approximate total is refreshed in the background, so it is part of the tag
+        return isNotModified(request, version != null ? version + "-" + result.getTotalElements() : null)
+                ? null : result;
+    }
+
+    /**
+     * Searches for properties based on filters, with pagination but without a total count ({@code withTotal=false}).
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (default is 0).
+     * @param size     The number of properties per page (default is 5).
+     * @param fields   The fields to return, "all" or "summary" (default is "all").
+     * @param request  The current request, used to answer conditional requests.
+     * @return A page of properties matching the filters, without total.
+     */
+    @GetMapping(value = "/search", params = {"withTotal=false", "!after"})
+    public SlicePage<?> searchPropertiesWithoutTotal(@RequestParam(required = false) String query,
+                                                     @RequestParam(required = false) Double maxPrice,
+                                                     @RequestParam(required = false) Double maxSize,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "5") int size,
+                                                     @RequestParam(defaultValue = "all") String fields,
+                                                     ServletWebRequest request) {
+        checkPage(page, size);
+        if (isNotModified(request, propertyService.getListingVersion())) {
+            return null;
+        }
+        return switch (resolveFields(fields)) {
+            case ALL -> SlicePage.of(propertyService.searchPropertiesSlice(query, maxPrice, maxSize, page, size));
+            case SUMMARY -> SlicePage.of(
+                    propertyService.searchPropertySummariesSlice(query, maxPrice, maxSize, page, size));
+        };
+    }
+
+    /**
+     * Searches for properties based on filters, with pagination and an approximate total ({@code withTotal=approximate}).
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (default is 0).
+     * @param size     The number of properties per page (default is 5).
+     * @param fields   The fields to return, "all" or "summary" (default is "all").
+     * @param request  The current request, used to answer conditional requests.
+     * @return A page of properties matching the filters.
+     */
+    @GetMapping(value = "/search", params = {"withTotal=approximate", "!after"})
+    public Page<?> searchPropertiesWithApproximateTotal(@RequestParam(required = false) String query,
+                                                        @RequestParam(required = false) Double maxPrice,
+                                                        @RequestParam(required = false) Double maxSize,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "5") int size,
+                                                        @RequestParam(defaultValue = "all") String fields,
+                                                        ServletWebRequest request) {
+        checkPage(page, size);
+        String version = propertyService.getListingVersion();
+        Page<?> result = switch (resolveFields(fields)) {
+            case ALL -> propertyService.searchPropertiesWithApproximateTotal(query, maxPrice, maxSize, page, size);
+            case SUMMARY -> propertyService.searchPropertySummariesWithApproximateTotal(
+                    query, maxPrice, maxSize, page, size);
+        };
+        return isNotModified(request, version != null ? version + "-" + result.getTotalElements() : null)
+                ? null : result;
+    }
+
+    /**
+     * Retrieves properties with keyset pagination.
+     * The cost of a page is the same regardless of how deep it is, and no total count is computed.
+     *
+     * @param after   The cursor returned by the previous page, or empty for the first page.
+     * @param sort    The sort key used when starting from the first page ("id" or "price", default is "id").
+     * @param size    The number of properties per page (default is 5).
+     * @param request The current request, used to answer conditional requests.
+     * @return A cursor page of properties.
+     */
+    @GetMapping(params = "after")
+    public CursorPage<Property> getPropertiesAfter(@RequestParam String after,
+                                                   @RequestParam(defaultValue = "id") String sort,
+                                                   @RequestParam(defaultValue = "5") int size,
+                                                   ServletWebRequest request) {
+        checkSize(size);
+        if (isNotModified(request, propertyService.getListingVersion())) {
+            return null;
+        }
+        PropertyCursor cursor = resolveCursor(after, sort);
+        return toCursorPage(propertyService.getPropertiesAfter(cursor, size), cursor.getSortKey(), size);
+    }
+
+    /**
+     * Searches for properties based on filters and returns them with keyset pagination.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param after    The cursor returned by the previous page, or empty for the first page.
+     * @param sort     The sort key used when starting from the first page ("id" or "price", default is "id").
+     * @param size     The number of properties per page (default is 5).
+     * @param request  The current request, used to answer conditional requests.
+     * @return A cursor page of properties matching the filters.
+     */
+    @GetMapping(value = "/search", params = "after")
+    public CursorPage<Property> searchPropertiesAfter(@RequestParam(required = false) String query,
+                                                      @RequestParam(required = false) Double maxPrice,
+                                                      @RequestParam(required = false) Double maxSize,
+                                                      @RequestParam String after,
+                                                      @RequestParam(defaultValue = "id") String sort,
+                                                      @RequestParam(defaultValue = "5") int size,
+                                                      ServletWebRequest request) {
+        checkSize(size);
+        if (isNotModified(request, propertyService.getListingVersion())) {
+            return null;
+        }
+        PropertyCursor cursor = resolveCursor(after, sort);
+        Slice<Property> slice = propertyService.searchPropertiesAfter(query, maxPrice, maxSize, cursor, size);
+        return toCursorPage(slice, cursor.getSortKey(), size);
+    }
+
+    /**
+     * Exports every property, streamed straight from the database as it is read.
+     *
+     * @param format The output format, "ndjson" or "csv" (default is "ndjson").
+     * @return A ResponseEntity whose body is written incrementally.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProperties(@RequestParam(defaultValue = "ndjson") String format,
+                                                                  HttpServletRequest request) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        // The export outlasts spring.mvc.async.request-timeout, which stays bounded for every other request
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(PropertyController.class.getName() + ".export",
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        ((AsyncWebRequest) webRequest).setTimeout(exportTimeout.toMillis());
+                    }
+                });
+        StreamingResponseBody body = output -> propertyExportService.exportProperties(output, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"properties." + exportFormat.parameter() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Streams property changes as Server-Sent Events.
+     * Each event is named "created", "updated" or "deleted" and carries the change as JSON;
+     * a "resync" event means changes were dropped for this client, which should reload its listing.
+     * A client that already holds too many open streams gets a 429 status, and a 503 status means
+     * the server holds as many streams as it accepts.
+     *
+     * @param request The HTTP request, whose remote address identifies the client.
+     * @return A ResponseEntity whose body stays open and receives the events.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(HttpServletRequest request) {
+        SseEmitter emitter;
+        try {
+            emitter = eventBroadcaster.subscribe(request.getRemoteAddr());
+        } catch (PropertyEventBroadcaster.ClientStreamLimitException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Keeps reverse proxies such as nginx from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
     }
 
     /**
      * Retrieves a property by its ID.
+     * The response carries a weak ETag built from the ID and version, and the update time as
+     * Last-Modified; a matching If-None-Match or If-Modified-Since gets a 304 status without a body.
      *
      * @param id The ID of the property to retrieve.
      * @return A ResponseEntity containing the property if found, or a 404 status if not found.
@@ -60,7 +370,15 @@ public class PropertyController {
     @GetMapping("/{id}")
     public ResponseEntity<Property> getPropertyById(@PathVariable Long id) {
         return propertyService.getPropertyById(id)
-                .map(ResponseEntity::ok)
+                .map(property -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .cacheControl(API_CACHE_CONTROL)
+                            .eTag(weakETag(property.getId() + "-" + property.getVersion()));
+                    if (property.getUpdatedAt() != null) {
+                        response.lastModified(property.getUpdatedAt());
+                    }
+                    return response.body(property);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -77,6 +395,10 @@ public class PropertyController {
 
     /**
      * Updates an existing property.
+     * The update must be based on a known version of the property: the {@code version} in the body, rejected
+     * with a 409 status when someone else modified the property since. Without it the update is rejected with
+     * a 428 status, so a concurrent edit is never overwritten silently. If-Match is not supported: the ETags
+     * of {@code GET /{id}} are weak, and If-Match only accepts strong ones.
      *
      * @param id             The ID of the property to update.
      * @param propertyDetails The updated property details.
@@ -84,6 +406,9 @@ public class PropertyController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<Property> updateProperty(@PathVariable Long id, @RequestBody Property propertyDetails) {
+        if (propertyDetails.getVersion() == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED, "Send the property's version");
+        }
         return ResponseEntity.ok(propertyService.updateProperty(id, propertyDetails));
     }
 
@@ -98,4 +423,124 @@ public class PropertyController {
         propertyService.deleteProperty(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates several properties from a JSON array.
+     * Items are persisted in JDBC batches; invalid items are reported without aborting the others.
+     *
+     * @param properties The properties to create.
+     * @return The per-item results.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchResult createProperties(@RequestBody List<Property> properties) {
+        return propertyBatchService.createProperties(properties.iterator());
+    }
+
+    /**
+     * Creates several properties from a newline-delimited JSON (NDJSON) stream.
+     * The stream is read one line at a time, so large feeds are never fully held in memory.
+     *
+     * @param body The NDJSON request body, one property per line.
+     * @return The per-item results.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchResult createPropertiesFromNdjson(InputStream body) {
+        return propertyBatchService.createProperties(new NdjsonIterator<>(body, objectMapper.readerFor(Property.class)));
+    }
+
+    /**
+     * Updates several existing properties, each identified by its ID.
+     *
+     * @param properties The updated property details, including their IDs.
+     * @return The per-item results.
+     */
+    @PutMapping("/batch")
+    public BatchResult updateProperties(@RequestBody List<Property> properties) {
+        return propertyBatchService.updateProperties(properties);
+    }
+
+    /**
+     * Deletes several properties by their IDs.
+     *
+     * @param ids The IDs of the properties to delete.
+     * @return The per-item results.
+     */
+    @DeleteMapping("/batch")
+    public BatchResult deleteProperties(@RequestBody List<Long> ids) {
+        return propertyBatchService.deleteProperties(ids);
+    }
+
+    /**
+     * Handles updates based on an outdated version of a property.
+     *
+     * @param e The optimistic locking failure.
+     * @return A ResponseEntity with a 409 status.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "The property was modified by another user"));
+    }
+
+    /**
+     * Marks the response as revalidated on every use and checks the request's If-None-Match header.
+     * When it matches, the status is set to 304 and the handler returns without a body.
+     * Without an ETag, e.g. for results read from a lagging replica, the response is never 304.
+     */
+    private boolean isNotModified(ServletWebRequest request, String etag) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, API_CACHE_CONTROL.getHeaderValue());
+        return etag != null && request.checkNotModified(weakETag(etag));
+    }
+
+    /**
+     * ETags are weak because the same representation may be sent gzipped or not; Tomcat also
+     * refuses to compress responses that carry a strong ETag.
+     */
+    private static String weakETag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    /**
+     * Rejects offset pages that are too large or too deep. An offset page reads every row before it,
+     * from every shard, so deeper pages must be read with the cursor pages ({@code after}) instead.
+     */
+    private void checkPage(int page, int size) {
+        checkSize(size);
+        if (page < 0 || (long) page * size > maxOffset) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page * size must be between 0 and "
+                    + maxOffset + "; read further with the cursor pages (after=)");
+        }
+    }
+
+    private void checkSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + maxPageSize);
+        }
+    }
+
+    private PropertyFields resolveFields(String fields) {
+        try {
+            return PropertyFields.fromParameter(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private PropertyCursor resolveCursor(String after, String sort) {
+        try {
+            return after.isBlank()
+                    ? PropertyCursor.first(PropertySortKey.fromParameter(sort))
+                    : PropertyCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private CursorPage<Property> toCursorPage(Slice<Property> slice, PropertySortKey sortKey, int size) {
+        List<Property> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? PropertyCursor.after(sortKey, content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(content, size, slice.hasNext(), nextCursor);
+    }
+}
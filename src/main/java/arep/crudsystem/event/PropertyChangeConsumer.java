@@ -0,0 +1,20 @@
+package arep.crudsystem.event;
+
+import java.util.List;
+
+/**
+ * Receives committed property changes from the outbox dispatcher.
+ * Delivery is at least once: after a failure or a restart a batch may be delivered again, so
+ * consumers must apply changes idempotently. Changes arrive in commit order, and a batch holds
+ * at most one change per property, already reflecting its latest stored state.
+ */
+public interface PropertyChangeConsumer {
+
+    /**
+     * Applies a batch of changes.
+     *
+     * @param changes The changes, oldest first.
+     * @throws RuntimeException If the batch could not be applied; it is delivered again later.
+     */
+    void onChanges(List<PropertyChangeEvent> changes);
+}
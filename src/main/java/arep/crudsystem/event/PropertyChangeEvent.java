@@ -0,0 +1,65 @@
+package arep.crudsystem.event;
+
+import arep.crudsystem.model.Property;
+
+/**
+ * A committed change to a property, published on the application event bus.
+ *
+ * @param type     The kind of change.
+ * @param id       The ID of the changed property.
+ * @param property The property as written, or {@code null} for deletions.
+ */
+public record PropertyChangeEvent(Type type, Long id, Property property) {
+
+    /**
+     * Kinds of property changes, named as their Server-Sent Events.
+     */
+    public enum Type {
+
+        CREATED("created"),
+
+        UPDATED("updated"),
+
+        DELETED("deleted");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    /**
+     * Creates the event of a new property.
+     *
+     * @param property The created property, with its generated ID.
+     * @return The event.
+     */
+    public static PropertyChangeEvent created(Property property) {
+        return new PropertyChangeEvent(Type.CREATED, property.getId(), property);
+    }
+
+    /**
+     * Creates the event of an updated property.
+     *
+     * @param property The property as written.
+     * @return The event.
+     */
+    public static PropertyChangeEvent updated(Property property) {
+        return new PropertyChangeEvent(Type.UPDATED, property.getId(), property);
+    }
+
+    /**
+     * Creates the event of a deleted property.
+     *
+     * @param id The ID of the deleted property.
+     * @return The event.
+     */
+    public static PropertyChangeEvent deleted(Long id) {
+        return new PropertyChangeEvent(Type.DELETED, id, null);
+    }
+}
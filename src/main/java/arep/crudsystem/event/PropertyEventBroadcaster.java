@@ -0,0 +1,321 @@
+package arep.crudsystem.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed property changes, as delivered by the outbox dispatcher, out to the open Server-Sent Event streams.
+ * Changes are buffered per subscriber and flushed every {@code property.events.flush-interval}, one write
+ * per subscriber and flush; changes to the same property within an interval are coalesced into one event.
+ * A subscriber whose buffer overflows (because it reads slowly or a bulk write changed many properties)
+ * gets a single {@code resync} event instead, telling it to reload. Writes happen on a small sender pool,
+ * never on the thread that changed the property. A write to a client that stopped reading blocks its sender
+ * thread, so each client address may only occupy {@code property.events.sender-threads-per-client} senders
+ * at a time, fewer than the pool has, however many streams it opened; its other streams wait for the next flush.
+ * Idle streams receive a comment every {@code property.events.heartbeat-interval} so that proxies keep them
+ * open and closed clients are noticed.
+ * Every open stream holds a connection, so their number is capped below {@code server.tomcat.max-connections},
+ * and each client address may only hold a few of them, leaving connections for everyone else's requests.
+ */
+@Component
+@Order(1)
+public class PropertyEventBroadcaster implements PropertyChangeConsumer, MeterBinder {
+
+    static final String RESYNC_EVENT = "resync";
+
+    // Each open stream, with the address of the client that opened it
+    private final Map<PropertyEventSubscriber, String> subscribers = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> streamsPerClient = new ConcurrentHashMap<>();
+
+    // Slots of the overall cap, reserved before a stream is opened
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    private final Map<String, Integer> sendsPerClient = new ConcurrentHashMap<>();
+
+    private final int bufferCapacity;
+
+    private final int maxSubscribers;
+
+    private final int maxSubscribersPerClient;
+
+    private final int maxSendersPerClient;
+
+    private final Duration timeout;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService senders;
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong resyncs = new AtomicLong();
+
+    public PropertyEventBroadcaster(@Value("${property.events.buffer-capacity:256}") int bufferCapacity,
+                                    @Value("${property.events.max-subscribers:4096}") int maxSubscribers,
+                                    @Value("${property.events.max-subscribers-per-client:4}") int maxSubscribersPerClient,
+                                    @Value("${server.tomcat.max-connections:8192}") int maxConnections,
+                                    @Value("${property.events.timeout:30m}") Duration timeout,
+                                    @Value("${property.events.flush-interval:250ms}") Duration flushInterval,
+                                    @Value("${property.events.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                    @Value("${property.events.sender-threads:4}") int senderThreads,
+                                    @Value("${property.events.sender-threads-per-client:1}") int maxSendersPerClient) {
+        if (maxSubscribers >= maxConnections) {
+            throw new IllegalStateException("property.events.max-subscribers (" + maxSubscribers
+                    + ") must stay below server.tomcat.max-connections (" + maxConnections + ")");
+        }
+        if (maxSendersPerClient >= senderThreads) {
+            throw new IllegalStateException("property.events.sender-threads-per-client (" + maxSendersPerClient
+                    + ") must stay below property.events.sender-threads (" + senderThreads + ")");
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerClient = maxSubscribersPerClient;
+        this.maxSendersPerClient = maxSendersPerClient;
+        this.timeout = timeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("property-events-flush"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("property-events-send"));
+        scheduler.scheduleWithFixedDelay(() -> dispatch(false),
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> dispatch(true),
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a new event stream.
+     * The stream completes after {@code property.events.timeout}; browsers then reconnect on their own.
+     *
+     * @param client The address of the client opening the stream.
+     * @return The emitter of the new stream.
+     * @throws ClientStreamLimitException If the client already holds the maximum number of open streams.
+     * @throws IllegalStateException      If the maximum number of open streams is reached.
+     */
+    public SseEmitter subscribe(String client) {
+        if (openStreams.incrementAndGet() > maxSubscribers) {
+            openStreams.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams");
+        }
+        try {
+            streamsPerClient.compute(client, (key, count) -> {
+                if (count != null && count >= maxSubscribersPerClient) {
+                    throw new ClientStreamLimitException("Too many open event streams for this client");
+                }
+                return count == null ? 1 : count + 1;
+            });
+        } catch (ClientStreamLimitException e) {
+            openStreams.decrementAndGet();
+            throw e;
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        PropertyEventSubscriber subscriber = new PropertyEventSubscriber(emitter, bufferCapacity);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        try {
+            // Held until Spring MVC starts the stream and written with the headers, so the client sees it open at once
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            release(client);
+            throw new IllegalStateException("Could not open the event stream", e);
+        }
+        subscribers.put(subscriber, client);
+        return emitter;
+    }
+
+    /**
+     * Buffers the changes for every open stream.
+     *
+     * @param changes The changes.
+     */
+    @Override
+    public void onChanges(List<PropertyChangeEvent> changes) {
+        published.addAndGet(changes.size());
+        for (PropertyEventSubscriber subscriber : subscribers.keySet()) {
+            for (PropertyChangeEvent change : changes) {
+                if (subscriber.offer(change)) {
+                    coalesced.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of open event streams.
+     *
+     * @return The number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Returns the number of event streams open by a client.
+     *
+     * @param client The address of the client.
+     * @return The number of the client's subscribers.
+     */
+    public int getSubscriberCount(String client) {
+        return streamsPerClient.getOrDefault(client, 0);
+    }
+
+    private void unsubscribe(PropertyEventSubscriber subscriber) {
+        String client = subscribers.remove(subscriber);
+        if (client != null) {
+            release(client);
+        }
+    }
+
+    private void release(String client) {
+        streamsPerClient.computeIfPresent(client, (key, count) -> count == 1 ? null : count - 1);
+        openStreams.decrementAndGet();
+    }
+
+    private void dispatch(boolean heartbeat) {
+        for (Map.Entry<PropertyEventSubscriber, String> entry : subscribers.entrySet()) {
+            PropertyEventSubscriber subscriber = entry.getKey();
+            String client = entry.getValue();
+            if ((heartbeat || subscriber.hasPending()) && subscriber.tryAcquire()) {
+                if (!acquireSender(client)) {
+                    // Still pending, so it is flushed once one of the client's senders is free
+                    subscriber.release();
+                    continue;
+                }
+                try {
+                    senders.execute(() -> {
+                        try {
+                            flush(subscriber, heartbeat);
+                        } finally {
+                            releaseSender(client);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    releaseSender(client);
+                    subscriber.release();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims a sender thread for a client, if it does not hold its share of the pool already.
+     *
+     * @param client The address of the client.
+     * @return Whether the caller may send to the client; if so it must call {@link #releaseSender} afterwards.
+     */
+    boolean acquireSender(String client) {
+        boolean[] acquired = new boolean[1];
+        sendsPerClient.compute(client, (key, count) -> {
+            int current = count == null ? 0 : count;
+            acquired[0] = current < maxSendersPerClient;
+            return acquired[0] ? current + 1 : count;
+        });
+        return acquired[0];
+    }
+
+    void releaseSender(String client) {
+        sendsPerClient.computeIfPresent(client, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void flush(PropertyEventSubscriber subscriber, boolean heartbeat) {
+        try {
+            PropertyEventSubscriber.Batch batch = subscriber.drain();
+            if (batch.isEmpty() && !heartbeat) {
+                return;
+            }
+            Set<SseEmitter.DataWithMediaType> payload = new LinkedHashSet<>();
+            if (batch.resync()) {
+                resyncs.incrementAndGet();
+                payload.addAll(SseEmitter.event().name(RESYNC_EVENT).data("{}").build());
+            }
+            for (PropertyChangeEvent event : batch.events()) {
+                payload.addAll(SseEmitter.event()
+                        .name(event.type().eventName())
+                        .data(event, MediaType.APPLICATION_JSON)
+                        .build());
+            }
+            if (payload.isEmpty()) {
+                payload.addAll(SseEmitter.event().comment("heartbeat").build());
+            }
+            subscriber.emitter().send(payload);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream already completed
+            unsubscribe(subscriber);
+            subscriber.emitter().completeWithError(e);
+        } finally {
+            subscriber.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        for (PropertyEventSubscriber subscriber : subscribers.keySet()) {
+            subscriber.emitter().complete();
+        }
+        subscribers.clear();
+        streamsPerClient.clear();
+        openStreams.set(0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("property.events.subscribers", subscribers, Map::size)
+                .description("Open property event streams")
+                .register(registry);
+        FunctionCounter.builder("property.events.published", published, AtomicLong::get)
+                .description("Property changes published to the event streams")
+                .register(registry);
+        FunctionCounter.builder("property.events.coalesced", coalesced, AtomicLong::get)
+                .description("Buffered changes replaced by a later change of the same property")
+                .register(registry);
+        FunctionCounter.builder("property.events.resyncs", resyncs, AtomicLong::get)
+                .description("Buffers that overflowed and were replaced by a resync event")
+                .register(registry);
+    }
+
+    /**
+     * Thrown when a client already holds the maximum number of open event streams.
+     */
+    public static class ClientStreamLimitException extends IllegalStateException {
+
+        public ClientStreamLimitException(String message) {
+            super(message);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
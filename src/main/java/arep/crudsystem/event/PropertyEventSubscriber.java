@@ -0,0 +1,104 @@
+package arep.crudsystem.event;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open event stream and the changes waiting to be sent to it.
+ * Pending changes are kept per property ID, so a property changed several times between two
+ * flushes is sent once, in its latest state. When more than {@code capacity} properties are pending
+ * (a slow client or a bulk write), they are discarded and the client is told to reload instead.
+ */
+class PropertyEventSubscriber {
+
+    /**
+     * Changes taken from the buffer for one flush.
+     *
+     * @param events The coalesced changes, in the order the properties were first changed.
+     * @param resync Whether changes were dropped, so the client must reload what it shows.
+     */
+    record Batch(List<PropertyChangeEvent> events, boolean resync) {
+
+        boolean isEmpty() {
+            return events.isEmpty() && !resync;
+        }
+    }
+
+    private final SseEmitter emitter;
+
+    private final int capacity;
+
+    private final Map<Long, PropertyChangeEvent> pending = new LinkedHashMap<>();
+
+    private boolean overflowed;
+
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    PropertyEventSubscriber(SseEmitter emitter, int capacity) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Buffers a change for this subscriber.
+     *
+     * @param event The change.
+     * @return Whether an earlier pending change of the same property was replaced.
+     */
+    synchronized boolean offer(PropertyChangeEvent event) {
+        if (overflowed) {
+            return false;
+        }
+        PropertyChangeEvent previous = pending.get(event.id());
+        if (previous != null && previous.type() == PropertyChangeEvent.Type.CREATED
+                && event.type() == PropertyChangeEvent.Type.UPDATED) {
+            // The client has not seen the property yet, so it is still new to it
+            event = PropertyChangeEvent.created(event.property());
+        }
+        pending.put(event.id(), event);
+        if (pending.size() > capacity) {
+            pending.clear();
+            overflowed = true;
+        }
+        return previous != null;
+    }
+
+    synchronized boolean hasPending() {
+        return overflowed || !pending.isEmpty();
+    }
+
+    /**
+     * Takes the pending changes, leaving the buffer empty.
+     *
+     * @return The changes to send.
+     */
+    synchronized Batch drain() {
+        Batch batch = new Batch(new ArrayList<>(pending.values()), overflowed);
+        pending.clear();
+        overflowed = false;
+        return batch;
+    }
+
+    /**
+     * Claims this subscriber for a flush, so that a client that is slow to read never has two
+     * sender threads blocked on it.
+     *
+     * @return Whether the caller may flush; if so it must call {@link #release()} afterwards.
+     */
+    boolean tryAcquire() {
+        return flushing.compareAndSet(false, true);
+    }
+
+    void release() {
+        flushing.set(false);
+    }
+}
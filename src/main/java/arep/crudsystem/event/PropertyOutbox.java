@@ -0,0 +1,65 @@
+package arep.crudsystem.event;
+
+import arep.crudsystem.model.PropertyOutboxEntry;
+import arep.crudsystem.repository.PropertyOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records property changes in the outbox table, as part of the transaction that makes them.
+ * Writers only pay for the extra insert; the consumers of the change run later on the
+ * {@link PropertyOutboxDispatcher}, which is woken up as soon as the transaction commits.
+ */
+@Component
+public class PropertyOutbox {
+
+    @Autowired
+    private PropertyOutboxRepository outboxRepository;
+
+    @Autowired
+    private PropertyOutboxDispatcher dispatcher;
+
+    /**
+     * Records a change of one property.
+     *
+     * @param type       The kind of change.
+     * @param propertyId The ID of the changed property.
+     * @throws org.springframework.transaction.IllegalTransactionStateException If no transaction is active.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(PropertyChangeEvent.Type type, Long propertyId) {
+        recordAll(type, List.of(propertyId));
+    }
+
+    /**
+     * Records the same kind of change for several properties.
+     *
+     * @param type        The kind of change.
+     * @param propertyIds The IDs of the changed properties.
+     * @throws org.springframework.transaction.IllegalTransactionStateException If no transaction is active.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(PropertyChangeEvent.Type type, Collection<Long> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        outboxRepository.saveAll(propertyIds.stream()
+                .map(propertyId -> new PropertyOutboxEntry(propertyId, type, now))
+                .toList());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,317 @@
+package arep.crudsystem.event;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertyOutboxEntry;
+import arep.crudsystem.repository.PropertyOutboxRepository;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.sharding.PropertyShards;
+import arep.crudsystem.sharding.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the property outbox in batches and hands the changes to every {@link PropertyChangeConsumer}.
+ * The consumers are in-memory structures of this instance, and instances sharing a database must each see
+ * every change, so entries are not consumed: each instance keeps its own read position (the highest entry ID
+ * it delivered) and the entries are deleted once older than {@code property.outbox.retention}.
+ * Every consumer gets each batch, even when another one fails. If a consumer fails, the position does not move
+ * and the batch is delivered again on the next run (at-least-once delivery); after
+ * {@code property.outbox.max-attempts} failed deliveries in a row the batch is skipped, logged with its property IDs
+ * and counted, so that one broken consumer or entry does not hold back every later change of the shard.
+ * Changes to the same property within a batch are merged, and consumers get
+ * the property as currently stored, which keeps redelivery and out-of-order commits harmless.
+ * IDs are only roughly ordered by commit: an entry may commit after entries with higher IDs, from a longer
+ * transaction or from another instance whose clock differs. Each poll therefore reads again the entries of the
+ * last {@code property.outbox.lookback} before the position and delivers those it has not delivered yet.
+ * The dispatcher runs on its own thread, right after each committing write and every
+ * {@code property.outbox.poll-interval} once the application is ready. Entries are written on the shard of their property,
+ * so each shard's outbox is read in turn, with its own position.
+ */
+@Component
+public class PropertyOutboxDispatcher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyOutboxDispatcher.class);
+
+    private final PropertyOutboxRepository outboxRepository;
+
+    private final PropertyRepository propertyRepository;
+
+    private final List<PropertyChangeConsumer> consumers;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PropertyShards shards;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration pollInterval;
+
+    // The lookback as a difference of IDs
+    private final long lookbackIds;
+
+    private final Duration retention;
+
+    // Per shard: the highest delivered entry ID, and the IDs delivered within the lookback before it
+    private final long[] positions;
+
+    private final List<NavigableSet<Long>> delivered = new ArrayList<>();
+
+    // Per shard: the failed deliveries in a row
+    private final int[] attempts;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    private final AtomicLong dispatched = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    public PropertyOutboxDispatcher(PropertyOutboxRepository outboxRepository,
+                                    PropertyRepository propertyRepository,
+                                    List<PropertyChangeConsumer> consumers,
+                                    TransactionTemplate transactionTemplate,
+                                    PropertyShards shards,
+                                    @Value("${property.outbox.batch-size:500}") int batchSize,
+                                    @Value("${property.outbox.max-attempts:10}") int maxAttempts,
+                                    @Value("${property.outbox.poll-interval:1s}") Duration pollInterval,
+                                    @Value("${property.outbox.lookback:30s}") Duration lookback,
+                                    @Value("${property.outbox.retention:1h}") Duration retention) {
+        if (retention.compareTo(lookback) <= 0) {
+            throw new IllegalStateException("property.outbox.retention must be longer than property.outbox.lookback");
+        }
+        this.outboxRepository = outboxRepository;
+        this.propertyRepository = propertyRepository;
+        this.consumers = consumers;
+        this.transactionTemplate = transactionTemplate;
+        this.shards = shards;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+        long now = System.currentTimeMillis();
+        this.lookbackIds = SnowflakeIdGenerator.firstIdAt(now) - SnowflakeIdGenerator.firstIdAt(now - lookback.toMillis());
+        this.retention = retention;
+        // The search index is loaded from the database on startup, so earlier entries are already reflected
+        this.positions = new long[shards.getCount()];
+        Arrays.fill(positions, SnowflakeIdGenerator.firstIdAt(now));
+        for (int shard = 0; shard < positions.length; shard++) {
+            delivered.add(new TreeSet<>());
+        }
+        this.attempts = new int[positions.length];
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "property-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts polling the outbox once the application is ready, and so the search index is loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> runQuietly(() -> {
+                    drain(true);
+                    deleteExpired();
+                }),
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a drain of the outbox on the dispatcher thread, reading after the current position.
+     * Calls made while a drain is already scheduled are merged into it.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    wakeUpPending.set(false);
+                    runQuietly(() -> drain(false));
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; whatever is left is dispatched on the next start
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Delivers every entry this instance has not delivered yet, batch by batch, on the calling thread,
+     * including late commits within the lookback.
+     *
+     * @return The number of entries delivered.
+     * @throws RuntimeException If a consumer failed; the failed batch is delivered again on the next run,
+     *                          unless it failed {@code property.outbox.max-attempts} times in a row.
+     */
+    public int drain() {
+        return drain(true);
+    }
+
+    private synchronized int drain(boolean lookBack) {
+        int[] total = new int[1];
+        shards.forEachShard(shard -> {
+            long after = lookBack ? positions[shard] - lookbackIds : positions[shard];
+            Batch batch;
+            do {
+                long from = after;
+                batch = transactionTemplate.execute(status -> dispatchBatch(shard, from));
+                total[0] += batch.delivered();
+                after = batch.lastId();
+            } while (batch.read() == batchSize);
+            NavigableSet<Long> seen = delivered.get(shard);
+            if (!seen.isEmpty()) {
+                positions[shard] = Math.max(positions[shard], seen.last());
+            }
+            // Entries up to here are never read again
+            seen.headSet(positions[shard] - lookbackIds, true).clear();
+        });
+        return total[0];
+    }
+
+    private void runQuietly(Runnable work) {
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Property outbox dispatch failed, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Deletes the entries older than the retention. Every instance does so; the deletes are idempotent.
+     */
+    void deleteExpired() {
+        long oldest = SnowflakeIdGenerator.firstIdAt(System.currentTimeMillis() - retention.toMillis());
+        shards.forEachShard(shard -> transactionTemplate.execute(status -> outboxRepository.deleteByIdLessThan(oldest)));
+    }
+
+    private Batch dispatchBatch(int shard, long after) {
+        List<PropertyOutboxEntry> entries = outboxRepository.findByIdGreaterThanOrderByIdAsc(after,
+                PageRequest.of(0, batchSize));
+        if (entries.isEmpty()) {
+            return new Batch(0, after, 0);
+        }
+        NavigableSet<Long> seen = delivered.get(shard);
+        List<PropertyOutboxEntry> pending = entries.stream()
+                .filter(entry -> !seen.contains(entry.getId()))
+                .toList();
+        int deliveredCount = 0;
+        if (!pending.isEmpty()) {
+            List<PropertyChangeEvent> changes = toChanges(pending);
+            RuntimeException failure = null;
+            for (PropertyChangeConsumer consumer : consumers) {
+                try {
+                    consumer.onChanges(changes);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null && ++attempts[shard] < maxAttempts) {
+                throw failure;
+            }
+            if (failure != null) {
+                skipped.addAndGet(pending.size());
+                log.error("Skipping {} property outbox entries of shard {} after {} failed deliveries, properties {}",
+                        pending.size(), shard, attempts[shard],
+                        pending.stream().map(PropertyOutboxEntry::getPropertyId).distinct().toList(), failure);
+            } else {
+                dispatched.addAndGet(pending.size());
+                deliveredCount = pending.size();
+            }
+            attempts[shard] = 0;
+            pending.forEach(entry -> seen.add(entry.getId()));
+        }
+        return new Batch(entries.size(), entries.get(entries.size() - 1).getId(), deliveredCount);
+    }
+
+    /**
+     * The outcome of reading one batch.
+     *
+     * @param read      The number of entries read.
+     * @param lastId    The ID of the last entry read.
+     * @param delivered The number of entries delivered, those not delivered or skipped before.
+     */
+    private record Batch(int read, long lastId, int delivered) {
+    }
+
+    private List<PropertyChangeEvent> toChanges(List<PropertyOutboxEntry> entries) {
+        Map<Long, PropertyChangeEvent.Type> types = new LinkedHashMap<>();
+        for (PropertyOutboxEntry entry : entries) {
+            // A property created and then updated within the batch is still new to the consumers
+            types.merge(entry.getPropertyId(), entry.getType(), (previous, next) ->
+                    previous == PropertyChangeEvent.Type.CREATED && next == PropertyChangeEvent.Type.UPDATED
+                            ? previous : next);
+        }
+        List<Long> liveIds = types.entrySet().stream()
+                .filter(type -> type.getValue() != PropertyChangeEvent.Type.DELETED)
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<Long, Property> current = propertyRepository.findAllById(liveIds).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        List<PropertyChangeEvent> changes = new ArrayList<>(types.size());
+        types.forEach((id, type) -> {
+            Property property = current.get(id);
+            if (type == PropertyChangeEvent.Type.DELETED || property == null) {
+                changes.add(PropertyChangeEvent.deleted(id));
+            } else if (type == PropertyChangeEvent.Type.CREATED) {
+                changes.add(PropertyChangeEvent.created(property));
+            } else {
+                changes.add(PropertyChangeEvent.updated(property));
+            }
+        });
+        return changes;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("property.outbox.dispatched", dispatched, AtomicLong::get)
+                .description("Outbox entries delivered to every consumer")
+                .register(registry);
+        FunctionCounter.builder("property.outbox.failures", failures, AtomicLong::get)
+                .description("Outbox batches that a consumer failed and that will be delivered again")
+                .register(registry);
+        FunctionCounter.builder("property.outbox.skipped", skipped, AtomicLong::get)
+                .description("Outbox entries skipped after failing property.outbox.max-attempts deliveries in a row")
+                .register(registry);
+    }
+}
@@ -1,22 +1,32 @@
 package arep.crudsystem.model;
 
+import arep.crudsystem.sharding.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 /**
  * Represents a property entity in the system.
  * This class is mapped to the "properties" table in the database.
+ * The price and size indexes back the range filters of the property search.
  */
 @Data
 @Entity
-@Table(name = "properties")
+@Table(name = "properties", indexes = {
+        @Index(name = "idx_properties_price", columnList = "price"),
+        @Index(name = "idx_properties_size", columnList = "size"),
+        @Index(name = "idx_properties_price_size", columnList = "price, size")
+})
 public class Property {
     /**
      * The unique identifier for the property.
-     * This field is auto-generated by the database.
+     * This field is a time-ordered Snowflake ID, unique across instances and shards and generated
+     * in memory, so inserts can be sent in JDBC batches. The ID also decides the shard of the property.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     /**
@@ -47,6 +57,20 @@ public class Property {
     @Column
     private String description;
 
+    /**
+     * The version of the property, incremented on every update.
+     * Used for optimistic locking: an update based on an outdated version is rejected.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * When the property was created or last updated.
+     * Together with the version it lets clients revalidate a cached copy of the property.
+     */
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     public Long getId() {
         return id;
     }
@@ -86,4 +110,20 @@ public class Property {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,43 @@
+package arep.crudsystem.model;
+
+/**
+ * Sets of property fields that list and search responses can be limited to.
+ */
+public enum PropertyFields {
+
+    /**
+     * Every field of the property entity.
+     */
+    ALL("all"),
+
+    /**
+     * Only the fields of {@link PropertySummary}: ID, address, price and size.
+     */
+    SUMMARY("summary");
+
+    private final String parameter;
+
+    PropertyFields(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Resolves a field set from its request parameter value.
+     *
+     * @param parameter The value of the {@code fields} parameter (e.g. "all" or "summary").
+     * @return The matching field set.
+     * @throws IllegalArgumentException If the value is not a supported field set.
+     */
+    public static PropertyFields fromParameter(String parameter) {
+        for (PropertyFields fields : values()) {
+            if (fields.parameter.equalsIgnoreCase(parameter)) {
+                return fields;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported fields: " + parameter);
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+}
@@ -0,0 +1,58 @@
+package arep.crudsystem.model;
+
+import arep.crudsystem.event.PropertyChangeEvent;
+import arep.crudsystem.sharding.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A property change waiting to be passed on to the in-memory consumers (search index, caches, event stream).
+ * This class is mapped to the "property_outbox" table. Entries are inserted in the same transaction
+ * as the change itself, so a committed change always has an entry and a rolled-back one never does.
+ * Every instance reads them on its own, so they are kept for {@code property.outbox.retention}
+ * rather than deleted once delivered.
+ */
+@Data
+@Entity
+@Table(name = "property_outbox")
+public class PropertyOutboxEntry {
+
+    /**
+     * The unique identifier of the entry, which also orders the entries.
+     * A Snowflake ID like property IDs: entries are written on the shard of their property,
+     * and a database sequence per shard could hand out the same IDs twice.
+     */
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    /**
+     * The ID of the changed property.
+     */
+    @Column(nullable = false)
+    private Long propertyId;
+
+    /**
+     * The kind of change.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PropertyChangeEvent.Type type;
+
+    /**
+     * When the change was written.
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public PropertyOutboxEntry() {
+    }
+
+    public PropertyOutboxEntry(Long propertyId, PropertyChangeEvent.Type type, Instant createdAt) {
+        this.propertyId = propertyId;
+        this.type = type;
+        this.createdAt = createdAt;
+    }
+}
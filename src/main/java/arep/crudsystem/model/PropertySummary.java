@@ -0,0 +1,14 @@
+package arep.crudsystem.model;
+
+/**
+ * Read-only view of a property with the columns shown in list views.
+ * Queries project straight into this record, so the description is never read and the
+ * results are not managed (nor dirty-checked) by the persistence context.
+ *
+ * @param id      The unique identifier of the property.
+ * @param address The address of the property.
+ * @param price   The price of the property.
+ * @param size    The size of the property.
+ */
+public record PropertySummary(Long id, String address, Double price, Double size) {
+}
@@ -0,0 +1,17 @@
+package arep.crudsystem.pagination;
+
+import java.util.List;
+
+/**
+ * A keyset page of results.
+ * Unlike a {@code Page}, it carries no total count; {@code nextCursor} is the token
+ * to pass as {@code after} to read the following page, or {@code null} on the last page.
+ *
+ * @param content    The elements of this page.
+ * @param size       The requested page size.
+ * @param hasNext    Whether there are more elements after this page.
+ * @param nextCursor The cursor token for the next page, or {@code null} if there is none.
+ * @param <T>        The element type.
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
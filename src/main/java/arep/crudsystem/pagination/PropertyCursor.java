@@ -0,0 +1,96 @@
+package arep.crudsystem.pagination;
+
+import arep.crudsystem.model.Property;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last property returned by a keyset (seek) page.
+ * The cursor holds the sort key of that property together with its ID, so the next page
+ * can be fetched with a {@code (sortKey, id) > (lastSortKey, lastId)} predicate instead of an OFFSET scan.
+ * Clients only ever see it as an opaque URL-safe token.
+ */
+public final class PropertyCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final PropertySortKey sortKey;
+    private final Double price;
+    private final Long id;
+
+    private PropertyCursor(PropertySortKey sortKey, Double price, Long id) {
+        this.sortKey = sortKey;
+        this.price = price;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor that points before the first element for the given sort key.
+     *
+     * @param sortKey The sort key of the pages that will be read.
+     * @return A cursor for the first page.
+     */
+    public static PropertyCursor first(PropertySortKey sortKey) {
+        return new PropertyCursor(sortKey, -Double.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    /**
+     * Creates the cursor that points right after the given property.
+     *
+     * @param sortKey  The sort key of the pages being read.
+     * @param property The last property of the current page.
+     * @return A cursor for the next page.
+     */
+    public static PropertyCursor after(PropertySortKey sortKey, Property property) {
+        return new PropertyCursor(sortKey, property.getPrice(), property.getId());
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token The opaque cursor token.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static PropertyCursor decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":");
+            PropertySortKey sortKey = PropertySortKey.fromParameter(parts[0]);
+            if (sortKey == PropertySortKey.ID && parts.length == 2) {
+                return new PropertyCursor(sortKey, -Double.MAX_VALUE, Long.parseLong(parts[1]));
+            }
+            if (sortKey == PropertySortKey.PRICE && parts.length == 3) {
+                return new PropertyCursor(sortKey, Double.parseDouble(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+
+    /**
+     * Encodes this cursor as an opaque URL-safe token.
+     *
+     * @return The cursor token.
+     */
+    public String encode() {
+        String raw = sortKey == PropertySortKey.ID
+                ? sortKey.parameter() + ":" + id
+                : sortKey.parameter() + ":" + price + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PropertySortKey getSortKey() {
+        return sortKey;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,60 @@
+package arep.crudsystem.pagination;
+
+import arep.crudsystem.model.Property;
+
+import java.util.Comparator;
+
+/**
+ * Sort orders supported by keyset pagination.
+ * Every order ends with the property ID so that the seek predicate is total and stable.
+ */
+public enum PropertySortKey {
+
+    /**
+     * Ascending property ID.
+     */
+    ID("id"),
+
+    /**
+     * Ascending price, ties broken by ascending ID.
+     */
+    PRICE("price");
+
+    private final String parameter;
+
+    PropertySortKey(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Resolves a sort key from its request parameter value.
+     *
+     * @param parameter The value of the {@code sort} parameter (e.g. "id" or "price").
+     * @return The matching sort key.
+     * @throws IllegalArgumentException If the value is not a supported sort key.
+     */
+    public static PropertySortKey fromParameter(String parameter) {
+        for (PropertySortKey key : values()) {
+            if (key.parameter.equalsIgnoreCase(parameter)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort key: " + parameter);
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * Returns the order of this sort key, e.g. to merge slices read from several shards.
+     *
+     * @return A comparator of properties in this order.
+     */
+    public Comparator<Property> order() {
+        return switch (this) {
+            case ID -> Comparator.comparing(Property::getId);
+            case PRICE -> Comparator.comparing(Property::getPrice).thenComparing(Property::getId);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package arep.crudsystem.pagination;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * A numbered page of results without a total count.
+ * Returned when the client asks for {@code withTotal=false}; {@code hasNext} tells whether
+ * page {@code number + 1} has any elements.
+ *
+ * @param content The elements of this page.
+ * @param number  The zero-based page number.
+ * @param size    The requested page size.
+ * @param hasNext Whether there are more elements after this page.
+ * @param <T>     The element type.
+ */
+public record SlicePage<T>(List<T> content, int number, int size, boolean hasNext) {
+
+    /**
+     * Builds a page from a Spring Data slice.
+     *
+     * @param slice The slice.
+     * @param <T>   The element type.
+     * @return The page.
+     */
+    public static <T> SlicePage<T> of(Slice<T> slice) {
+        return new SlicePage<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,234 @@
+package arep.crudsystem.replica;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource that hands out read replica connections to read-only transactions and primary connections
+ * to everything else: read-write transactions and work outside of a transaction.
+ * The decision is taken when the connection is requested, so this DataSource must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; the transaction managers
+ * ask for a connection before the transaction is marked read-only, and the proxy only fetches it
+ * with the first statement.
+ * Replicas are used round robin. A replica is taken out of rotation when a connection to it fails
+ * (the transaction then runs on the primary) or when the periodic health check fails, and is put
+ * back once the health check passes again. Threads pinned with {@link #pinToPrimary(boolean)} read
+ * from the primary, so that a client sees its own writes before they reach the replicas.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final AtomicLong replicaConnections = new AtomicLong();
+
+    private final AtomicLong failovers = new AtomicLong();
+
+    private final int validationTimeoutSeconds;
+
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * Creates the routing DataSource and checks the replicas, once right away and then periodically.
+     *
+     * @param primary             The DataSource taking writes.
+     * @param replicas            The replica DataSources by name.
+     * @param healthCheckInterval The time between two health checks of the replicas.
+     * @param validationTimeout   How long a health check waits for a replica to answer.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Duration healthCheckInterval, Duration validationTimeout) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datasource-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkReplicas();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas,
+                healthCheckInterval.toMillis(), healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pins the read-only transactions of the current thread to the primary, or releases the pin.
+     *
+     * @param pinned Whether the thread reads from the primary.
+     * @return Whether the thread was pinned before, to be restored afterwards.
+     */
+    public static boolean pinToPrimary(boolean pinned) {
+        boolean previous = Boolean.TRUE.equals(pinnedToPrimary.get());
+        if (pinned) {
+            pinnedToPrimary.set(true);
+        } else {
+            pinnedToPrimary.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Tells whether the read-only transactions of the current thread are pinned to the primary.
+     *
+     * @return Whether the thread reads from the primary.
+     */
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(pinnedToPrimary.get());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaConnections.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                failovers.incrementAndGet();
+                if (replica.healthy) {
+                    replica.healthy = false;
+                    log.warn("Read replica {} is unavailable, reading from the primary: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Explicit credentials belong to the primary; replicas are configured with their own
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Unwraps this DataSource or, like the other lookups that do not open a connection, the primary;
+     * the replica rotation is left alone.
+     */
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    /**
+     * Checks every replica and updates whether it takes reads.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy && !replica.healthy) {
+                log.info("Read replica {} is available", replica.name);
+            } else if (!healthy && replica.healthy) {
+                log.warn("Read replica {} failed its health check, reading from the primary", replica.name);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Returns the number of replicas currently taking reads.
+     *
+     * @return The number of healthy replicas.
+     */
+    public int getAvailableReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isPinnedToPrimary()) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.available", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .description("Whether the read replica takes reads (1) or is out of rotation (0)")
+                    .register(registry);
+        }
+        FunctionCounter.builder("datasource.replica.connections", replicaConnections, AtomicLong::get)
+                .description("Connections of read-only transactions served by a replica")
+                .register(registry);
+        FunctionCounter.builder("datasource.replica.failovers", failovers, AtomicLong::get)
+                .description("Read-only transactions moved to the primary because a replica connection failed")
+                .register(registry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
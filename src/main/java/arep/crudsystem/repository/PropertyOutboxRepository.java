@@ -0,0 +1,35 @@
+package arep.crudsystem.repository;
+
+import arep.crudsystem.model.PropertyOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repository interface for the property change outbox.
+ */
+public interface PropertyOutboxRepository extends JpaRepository<PropertyOutboxEntry, Long> {
+
+    /**
+     * Retrieves the entries that follow the given ID.
+     *
+     * @param id       The ID to read after.
+     * @param pageable The number of entries to retrieve.
+     * @return The entries with a greater ID, oldest first.
+     */
+    List<PropertyOutboxEntry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Deletes the entries that precede the given ID with a single DELETE statement.
+     *
+     * @param id The lowest ID to keep.
+     * @return The number of deleted entries.
+     */
+    @Modifying
+    @Query("DELETE FROM PropertyOutboxEntry e WHERE e.id < :id")
+    int deleteByIdLessThan(@Param("id") Long id);
+}
@@ -1,23 +1,50 @@
 package arep.crudsystem.repository;
 
 import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for managing properties.
  * This interface extends JpaRepository to provide CRUD operations
- * and custom query methods for the Property entity.
+ * and custom query methods for the Property entity, and JpaSpecificationExecutor
+ * to run the dynamic searches built by {@link PropertySpecifications}.
+ * List views can read {@link PropertySummary} projections through {@link PropertySummaryRepository}.
  */
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>,
+        PropertySummaryRepository {
+
+    /**
+     * Number of rows fetched per round-trip by {@link #streamAll()}.
+     */
+    int EXPORT_FETCH_SIZE = 1000;
 
     /**
      * Searches for properties based on filters and returns them with pagination.
+     * The query is built dynamically so that only the supplied filters are emitted.
      *
      * @param query    The search query to filter properties by address or description (optional).
      * @param maxPrice The maximum price to filter properties (optional).
@@ -25,12 +52,166 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
      * @param pageable The pagination information (page number, page size, etc.).
      * @return A page of properties matching the filters.
      */
+    default Page<Property> search(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return findAll(PropertySpecifications.matching(query, maxPrice, maxSize), pageable);
+    }
+
+    /**
+     * Searches for properties based on filters and returns a slice of the requested page.
+     * One extra row is fetched to tell whether there is a next page; unlike {@link #search},
+     * no COUNT query is executed.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information (page number, page size, etc.).
+     * @return A slice of properties matching the filters.
+     */
+    default Slice<Property> searchSlice(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        // An offset position resumes after the element at that offset, so the first page starts from the initial one
+        ScrollPosition position = pageable.getOffset() == 0
+                ? ScrollPosition.offset()
+                : ScrollPosition.offset(pageable.getOffset() - 1);
+        Window<Property> window = findBy(PropertySpecifications.matching(query, maxPrice, maxSize),
+                fluentQuery -> fluentQuery.sortBy(pageable.getSort())
+                        .limit(pageable.getPageSize())
+                        .scroll(position));
+        return new SliceImpl<>(window.getContent(), pageable, window.hasNext());
+    }
+
+    /**
+     * Searches for properties based on filters and returns their summaries with pagination.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information (page number, page size, etc.).
+     * @return A page of summaries of the properties matching the filters.
+     */
+    default Page<PropertySummary> searchSummaries(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return findSummaries(PropertySpecifications.matching(query, maxPrice, maxSize), pageable);
+    }
+
+    /**
+     * Searches for properties based on filters and returns their summaries without a total count.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information (page number, page size, etc.).
+     * @return A slice of summaries of the properties matching the filters.
+     */
+    default Slice<PropertySummary> searchSummarySlice(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return findSummarySlice(PropertySpecifications.matching(query, maxPrice, maxSize), pageable);
+    }
+
+    /**
+     * Retrieves the summaries of the properties with the given IDs, in no particular order.
+     *
+     * @param ids The IDs of the properties.
+     * @return The summaries of the properties that exist.
+     */
+    @Query("SELECT new arep.crudsystem.model.PropertySummary(p.id, p.address, p.price, p.size) " +
+            "FROM Property p WHERE p.id IN :ids")
+    List<PropertySummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the properties whose ID is greater than the given one, ordered by ID.
+     * This is the keyset counterpart of {@code findAll(Pageable)}: it seeks directly to the
+     * start of the page and returns a slice, so no OFFSET scan or COUNT query is executed.
+     *
+     * @param afterId  The ID of the last property of the previous page.
+     * @param pageable The pagination information (only the page size is used).
+     * @return A slice of properties following the given ID.
+     */
+    @Query("SELECT p FROM Property p WHERE p.id > :afterId ORDER BY p.id")
+    Slice<Property> findAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Retrieves the properties that come after the given (price, id) position, ordered by price and ID.
+     *
+     * @param afterPrice The price of the last property of the previous page.
+     * @param afterId    The ID of the last property of the previous page.
+     * @param pageable   The pagination information (only the page size is used).
+     * @return A slice of properties following the given position.
+     */
     @Query("SELECT p FROM Property p WHERE " +
-            "(:query IS NULL OR p.address LIKE %:query% OR p.description LIKE %:query%) AND " +
-            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-            "(:maxSize IS NULL OR p.size <= :maxSize)")
-    Page<Property> search(@Param("query") String query,
-                          @Param("maxPrice") Double maxPrice,
-                          @Param("maxSize") Double maxSize,
-                          Pageable pageable);
+            "p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId) " +
+            "ORDER BY p.price, p.id")
+    Slice<Property> findAfterPrice(@Param("afterPrice") Double afterPrice,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    /**
+     * Updates the fields of a property with a single UPDATE statement and increments its version.
+     * The row is only updated if it still has the given version.
+     *
+     * @param id          The ID of the property to update.
+     * @param address     The new address.
+     * @param price       The new price.
+     * @param size        The new size.
+     * @param description The new description.
+     * @param version     The version the update is based on.
+     * @param updatedAt   The time of the update.
+     * @return The number of updated rows (0 if the property does not exist or its version changed).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Property p SET p.address = :address, p.price = :price, p.size = :size, " +
+            "p.description = :description, p.version = COALESCE(p.version, 0) + 1, p.updatedAt = :updatedAt " +
+            "WHERE p.id = :id AND p.version = :version")
+    int updateFields(@Param("id") Long id,
+                     @Param("address") String address,
+                     @Param("price") Double price,
+                     @Param("size") Double size,
+                     @Param("description") String description,
+                     @Param("version") Long version,
+                     @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Streams every property ordered by ID from a forward-only cursor.
+     * Rows are fetched from the driver {@value #EXPORT_FETCH_SIZE} at a time and loaded read-only,
+     * so the whole table is never materialized. Must be called inside a transaction and the
+     * stream must be closed after use. On MySQL the JDBC URL needs {@code useCursorFetch=true}
+     * for the fetch size to be honored.
+     *
+     * @return A stream of all properties.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Property p ORDER BY p.id")
+    Stream<Property> streamAll();
+
+    /**
+     * Returns which of the given IDs belong to existing properties, without loading the entities.
+     *
+     * @param ids The IDs to check.
+     * @return The subset of IDs that exist.
+     */
+    @Query("SELECT p.id FROM Property p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Searches for properties based on filters and returns the slice that follows the given cursor.
+     * One extra row is fetched to tell whether there is a next slice; no COUNT query is executed.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param cursor   The position of the last property of the previous page.
+     * @param size     The number of properties per page.
+     * @return A slice of matching properties ordered by the cursor's sort key.
+     */
+    default Slice<Property> searchAfter(String query, Double maxPrice, Double maxSize, PropertyCursor cursor, int size) {
+        Sort sort = switch (cursor.getSortKey()) {
+            case ID -> Sort.by("id");
+            case PRICE -> Sort.by("price", "id");
+        };
+        List<Property> rows = findBy(
+                PropertySpecifications.matching(query, maxPrice, maxSize).and(PropertySpecifications.after(cursor)),
+                fluentQuery -> fluentQuery.sortBy(sort).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size, sort), hasNext);
+    }
 }
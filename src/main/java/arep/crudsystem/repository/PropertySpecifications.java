@@ -0,0 +1,89 @@
+package arep.crudsystem.repository;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.pagination.PropertyCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Builds the dynamic predicates used to search properties.
+ * Only the filters that are actually supplied end up in the generated SQL, so the database
+ * sees plain range predicates such as {@code price <= ?} that it can answer with the
+ * indexes declared on {@link Property}, instead of {@code (? IS NULL OR price <= ?)}.
+ */
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    /**
+     * Combines the search filters that are present.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @return A specification with one predicate per supplied filter.
+     */
+    public static Specification<Property> matching(String query, Double maxPrice, Double maxSize) {
+        Specification<Property> specification = Specification.where(null);
+        if (query != null && !query.isEmpty()) {
+            specification = specification.and(textContains(query));
+        }
+        if (maxPrice != null) {
+            specification = specification.and(priceAtMost(maxPrice));
+        }
+        if (maxSize != null) {
+            specification = specification.and(sizeAtMost(maxSize));
+        }
+        return specification;
+    }
+
+    /**
+     * Matches properties whose address or description contains the given text.
+     *
+     * @param query The text to look for.
+     * @return The specification.
+     */
+    public static Specification<Property> textContains(String query) {
+        String pattern = "%" + query + "%";
+        return (root, criteriaQuery, builder) -> builder.or(
+                builder.like(root.get("address"), pattern),
+                builder.like(root.get("description"), pattern));
+    }
+
+    /**
+     * Matches properties with a price lower than or equal to the given one.
+     *
+     * @param maxPrice The maximum price.
+     * @return The specification.
+     */
+    public static Specification<Property> priceAtMost(Double maxPrice) {
+        return (root, criteriaQuery, builder) -> builder.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    /**
+     * Matches properties with a size lower than or equal to the given one.
+     *
+     * @param maxSize The maximum size.
+     * @return The specification.
+     */
+    public static Specification<Property> sizeAtMost(Double maxSize) {
+        return (root, criteriaQuery, builder) -> builder.lessThanOrEqualTo(root.get("size"), maxSize);
+    }
+
+    /**
+     * Matches properties positioned after the given keyset cursor.
+     *
+     * @param cursor The position of the last property of the previous page.
+     * @return The seek predicate for the cursor's sort key.
+     */
+    public static Specification<Property> after(PropertyCursor cursor) {
+        return (root, criteriaQuery, builder) -> switch (cursor.getSortKey()) {
+            case ID -> builder.greaterThan(root.get("id"), cursor.getId());
+            case PRICE -> builder.or(
+                    builder.greaterThan(root.get("price"), cursor.getPrice()),
+                    builder.and(
+                            builder.equal(root.get("price"), cursor.getPrice()),
+                            builder.greaterThan(root.get("id"), cursor.getId())));
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package arep.crudsystem.repository;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repository fragment that runs specification searches projected into {@link PropertySummary}.
+ * Only the summary columns are selected and no entity is loaded into the persistence context.
+ */
+public interface PropertySummaryRepository {
+
+    /**
+     * Retrieves the summaries of the properties matching the specification, with pagination.
+     * The COUNT query is skipped when the page itself shows the total (e.g. a short first page).
+     *
+     * @param specification The search predicate.
+     * @param pageable      The pagination information (page number, page size and sort).
+     * @return A page of property summaries.
+     */
+    Page<PropertySummary> findSummaries(Specification<Property> specification, Pageable pageable);
+
+    /**
+     * Retrieves the summaries of the properties matching the specification, without a total count.
+     * One extra row is fetched to tell whether there is a next page.
+     *
+     * @param specification The search predicate.
+     * @param pageable      The pagination information (page number, page size and sort).
+     * @return A slice of property summaries.
+     */
+    Slice<PropertySummary> findSummarySlice(Specification<Property> specification, Pageable pageable);
+}
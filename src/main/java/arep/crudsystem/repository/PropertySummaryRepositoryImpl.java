@@ -0,0 +1,73 @@
+package arep.crudsystem.repository;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link PropertySummaryRepository}.
+ * The select clause is a constructor expression, so the generated SQL reads only the summary columns.
+ */
+class PropertySummaryRepositoryImpl implements PropertySummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<PropertySummary> findSummaries(Specification<Property> specification, Pageable pageable) {
+        List<PropertySummary> content = summaryQuery(specification, pageable, pageable.getPageSize()).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    @Override
+    public Slice<PropertySummary> findSummarySlice(Specification<Property> specification, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<PropertySummary> rows = summaryQuery(specification, pageable, size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    private TypedQuery<PropertySummary> summaryQuery(Specification<Property> specification, Pageable pageable,
+                                                     int maxResults) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertySummary> query = builder.createQuery(PropertySummary.class);
+        Root<Property> root = query.from(Property.class);
+        query.select(builder.construct(PropertySummary.class,
+                root.get("id"), root.get("address"), root.get("price"), root.get("size")));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults);
+    }
+
+    private long count(Specification<Property> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Property> root = query.from(Property.class);
+        query.select(builder.count(root));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,72 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.repository.PropertySpecifications;
+import arep.crudsystem.sharding.PropertyShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Search engine that runs every search as a database query.
+ * It is used directly when {@code property.search.engine=database}, and by the indexed engine
+ * for searches that have no text query.
+ * When the properties table is sharded, each search runs on every shard and the results are merged by ID,
+ * the order of the unsorted searches on a single database.
+ */
+@Component
+public class DatabasePropertySearchEngine implements PropertySearchEngine {
+
+    private static final Comparator<Property> BY_ID = Comparator.comparing(Property::getId);
+
+    private static final Comparator<PropertySummary> SUMMARIES_BY_ID = Comparator.comparing(PropertySummary::id);
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyShards shards;
+
+    @Override
+    public Page<Property> search(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return shards.page(pageable, BY_ID,
+                shardPage -> propertyRepository.search(query, maxPrice, maxSize, shardPage));
+    }
+
+    @Override
+    public Slice<Property> searchSlice(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return shards.slice(pageable, BY_ID,
+                shardPage -> propertyRepository.searchSlice(query, maxPrice, maxSize, shardPage));
+    }
+
+    @Override
+    public Page<PropertySummary> searchSummaries(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return shards.page(pageable, SUMMARIES_BY_ID,
+                shardPage -> propertyRepository.searchSummaries(query, maxPrice, maxSize, shardPage));
+    }
+
+    @Override
+    public Slice<PropertySummary> searchSummarySlice(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        return shards.slice(pageable, SUMMARIES_BY_ID,
+                shardPage -> propertyRepository.searchSummarySlice(query, maxPrice, maxSize, shardPage));
+    }
+
+    @Override
+    public Slice<Property> searchAfter(String query, Double maxPrice, Double maxSize, PropertyCursor cursor, int size) {
+        return shards.sliceAfter(size, cursor.getSortKey().order(),
+                () -> propertyRepository.searchAfter(query, maxPrice, maxSize, cursor, size));
+    }
+
+    @Override
+    public long count(String query, Double maxPrice, Double maxSize) {
+        return shards.fanOut(() -> propertyRepository.count(PropertySpecifications.matching(query, maxPrice, maxSize)))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+}
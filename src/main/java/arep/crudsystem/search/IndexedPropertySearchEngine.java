@@ -0,0 +1,185 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.sharding.PropertyShards;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Search engine backed by an in-memory {@link PropertyTextIndex}.
+ * Text queries are answered from the index, already ranked and filtered by price and size;
+ * only the properties of the requested page are then loaded from the database by ID.
+ * Searches without a text query are delegated to {@link DatabasePropertySearchEngine}.
+ * This is the default engine; set {@code property.search.engine=database} to disable it.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "property.search.engine", havingValue = "index", matchIfMissing = true)
+public class IndexedPropertySearchEngine implements PropertySearchEngine {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private DatabasePropertySearchEngine databaseSearchEngine;
+
+    @Autowired
+    private PropertyShards shards;
+
+    private final PropertyTextIndex index = new PropertyTextIndex();
+
+    /**
+     * Loads every existing property into the index, reading the table of each shard in keyset batches.
+     */
+    @PostConstruct
+    public void rebuild() {
+        index.clear();
+        shards.forEachShard(shard -> loadAll());
+    }
+
+    private void loadAll() {
+        Slice<Property> batch = propertyRepository.findAfterId(Long.MIN_VALUE, PageRequest.of(0, LOAD_BATCH_SIZE));
+        while (true) {
+            batch.forEach(index::put);
+            if (!batch.hasNext()) {
+                break;
+            }
+            Long lastId = batch.getContent().get(batch.getNumberOfElements() - 1).getId();
+            batch = propertyRepository.findAfterId(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+        }
+    }
+
+    @Override
+    public Page<Property> search(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        if (query == null || query.isEmpty()) {
+            return databaseSearchEngine.search(query, maxPrice, maxSize, pageable);
+        }
+        List<PropertyTextIndex.Match> matches = index.search(query, maxPrice, maxSize);
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(load(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    /**
+     * Text searches read the page from the index, where the number of matches is known anyway.
+     */
+    @Override
+    public Slice<Property> searchSlice(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        if (query == null || query.isEmpty()) {
+            return databaseSearchEngine.searchSlice(query, maxPrice, maxSize, pageable);
+        }
+        Page<Property> page = search(query, maxPrice, maxSize, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    @Override
+    public Page<PropertySummary> searchSummaries(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        if (query == null || query.isEmpty()) {
+            return databaseSearchEngine.searchSummaries(query, maxPrice, maxSize, pageable);
+        }
+        List<PropertyTextIndex.Match> matches = index.search(query, maxPrice, maxSize);
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(loadSummaries(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    @Override
+    public Slice<PropertySummary> searchSummarySlice(String query, Double maxPrice, Double maxSize, Pageable pageable) {
+        if (query == null || query.isEmpty()) {
+            return databaseSearchEngine.searchSummarySlice(query, maxPrice, maxSize, pageable);
+        }
+        Page<PropertySummary> page = searchSummaries(query, maxPrice, maxSize, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    @Override
+    public Slice<Property> searchAfter(String query, Double maxPrice, Double maxSize, PropertyCursor cursor, int size) {
+        if (query == null || query.isEmpty()) {
+            return databaseSearchEngine.searchAfter(query, maxPrice, maxSize, cursor, size);
+        }
+        Comparator<PropertyTextIndex.Match> order = switch (cursor.getSortKey()) {
+            case ID -> Comparator.comparing(PropertyTextIndex.Match::id);
+            case PRICE -> Comparator.comparing(PropertyTextIndex.Match::price).thenComparing(PropertyTextIndex.Match::id);
+        };
+        List<PropertyTextIndex.Match> page = index.search(query, maxPrice, maxSize).stream()
+                .filter(match -> isAfter(match, cursor))
+                .sorted(order)
+                .limit(size + 1L)
+                .toList();
+        boolean hasNext = page.size() > size;
+        List<PropertyTextIndex.Match> content = hasNext ? page.subList(0, size) : page;
+        return new SliceImpl<>(load(content), PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Text queries are counted in the index, with the same case-insensitive matching as the searches.
+     */
+    @Override
+    public long count(String query, Double maxPrice, Double maxSize) {
+        if (query == null || query.isEmpty()) {
+            return databaseSearchEngine.count(query, maxPrice, maxSize);
+        }
+        return index.count(query, maxPrice, maxSize);
+    }
+
+    @Override
+    public void propertySaved(Property property) {
+        index.put(property);
+    }
+
+    @Override
+    public void propertyDeleted(Long id) {
+        index.remove(id);
+    }
+
+    private static boolean isAfter(PropertyTextIndex.Match match, PropertyCursor cursor) {
+        return switch (cursor.getSortKey()) {
+            case ID -> match.id() > cursor.getId();
+            case PRICE -> match.price() > cursor.getPrice()
+                    || (match.price().equals(cursor.getPrice()) && match.id() > cursor.getId());
+        };
+    }
+
+    private List<Property> load(List<PropertyTextIndex.Match> matches) {
+        List<Long> ids = matches.stream().map(PropertyTextIndex.Match::id).toList();
+        Map<Long, Property> byId = shards.fanOut(() -> propertyRepository.findAllById(ids)).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        return matches.stream()
+                .map(match -> byId.get(match.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<PropertySummary> loadSummaries(List<PropertyTextIndex.Match> matches) {
+        List<Long> ids = matches.stream().map(PropertyTextIndex.Match::id).toList();
+        Map<Long, PropertySummary> byId = shards.fanOut(() -> propertyRepository.findSummariesByIdIn(ids)).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(PropertySummary::id, Function.identity()));
+        return matches.stream()
+                .map(match -> byId.get(match.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,73 @@
+package arep.crudsystem.search;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Approximate match counts for property searches, taken from the {@link PropertySearchEngine} so that
+ * they agree with the searches.
+ * Text queries are counted by the engine on every request: the indexed engine counts its matches in memory.
+ * For searches without text, the first request for a filter combination runs a COUNT query; afterwards
+ * the count is served from the cache and recomputed in the background at most once per refresh interval,
+ * so it may lag behind recent writes by up to that interval.
+ */
+@Component
+public class PropertyCountCache implements MeterBinder {
+
+    /**
+     * Key of a cached count.
+     *
+     * @param maxPrice The normalized maximum price, or {@code null}.
+     * @param maxSize  The normalized maximum size, or {@code null}.
+     */
+    record Key(Double maxPrice, Double maxSize) {
+    }
+
+    private final PropertySearchEngine searchEngine;
+
+    private final LoadingCache<Key, Long> counts;
+
+    public PropertyCountCache(PropertySearchEngine searchEngine,
+                              @Value("${property.count-cache.refresh-interval:30s}") Duration refreshInterval,
+                              @Value("${property.count-cache.maximum-size:1000}") long maximumSize) {
+        this.searchEngine = searchEngine;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshInterval)
+                .expireAfterAccess(refreshInterval.multipliedBy(10))
+                .recordStats()
+                .build(key -> searchEngine.count(null, key.maxPrice(), key.maxSize()));
+    }
+
+    /**
+     * Returns the approximate number of properties matching the filters.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @return The count of a text query, otherwise the cached count, computed now if it was not cached yet.
+     */
+    public long approximateCount(String query, Double maxPrice, Double maxSize) {
+        String normalizedQuery = PropertySearchCache.normalizeQuery(query);
+        Double normalizedMaxPrice = PropertySearchCache.normalizeBound(maxPrice);
+        Double normalizedMaxSize = PropertySearchCache.normalizeBound(maxSize);
+        if (normalizedQuery != null) {
+            return searchEngine.count(normalizedQuery, normalizedMaxPrice, normalizedMaxSize);
+        }
+        return counts.get(new Key(normalizedMaxPrice, normalizedMaxSize));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same tag keys as the Spring-managed caches, which Prometheus requires for meters sharing a name
+        CaffeineCacheMetrics.monitor(registry, counts, "propertyCounts",
+                "cache.manager", "propertyCountCache", "name", "propertyCounts");
+    }
+}
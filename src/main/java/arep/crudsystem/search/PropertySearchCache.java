@@ -0,0 +1,210 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.config.CacheConfig;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.replica.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of search result pages.
+ * Entries are keyed on the normalized search parameters plus a global version stamp.
+ * Every write bumps the version with {@link #invalidate()}, so pages computed before the write
+ * can no longer be reached and are simply aged out by the cache's size and TTL bounds.
+ * With read replicas, a search that is not pinned to the primary may read a replica that has not caught up
+ * with the last write yet; its result is returned but only cached once the last write is older than
+ * {@code datasource.replicas.read-your-writes-window}, which is at least the replication lag.
+ */
+@Component
+public class PropertySearchCache {
+
+    private final CacheManager cacheManager;
+
+    private final String[] replicaUrls;
+
+    private final Duration replicationWindow;
+
+    private final AtomicLong version = new AtomicLong();
+
+    // When the version was last bumped, as System.nanoTime()
+    private volatile long invalidatedAt = System.nanoTime();
+
+    // Distinguishes the version stamps of this process from those handed out before a restart
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    public PropertySearchCache(CacheManager cacheManager,
+                               @Value("${datasource.replicas.urls:}") String[] replicaUrls,
+                               @Value("${datasource.replicas.read-your-writes-window:5s}") Duration replicationWindow) {
+        this.cacheManager = cacheManager;
+        this.replicaUrls = replicaUrls;
+        this.replicationWindow = replicationWindow;
+    }
+
+    /**
+     * What a cached entry holds, so that the same search cached as a page and as a slice gets two entries.
+     */
+    enum Kind {
+        PAGE, SLICE, SUMMARY_PAGE, SUMMARY_SLICE
+    }
+
+    /**
+     * Key of a cached search result.
+     *
+     * @param kind       What the entry holds.
+     * @param version    The version stamp at the time the search started.
+     * @param query      The normalized text query, or {@code null}.
+     * @param maxPrice   The normalized maximum price, or {@code null}.
+     * @param maxSize    The normalized maximum size, or {@code null}.
+     * @param pageNumber The page number.
+     * @param pageSize   The page size.
+     */
+    record Key(Kind kind, long version, String query, Double maxPrice, Double maxSize, int pageNumber, int pageSize) {
+    }
+
+    /**
+     * A search run on the engine on a cache miss, with the normalized filters.
+     */
+    @FunctionalInterface
+    private interface Search<T> {
+        T run(String query, Double maxPrice, Double maxSize);
+    }
+
+    /**
+     * Returns the cached page for the given search, running it on the engine if it is not cached.
+     *
+     * @param engine   The engine used to run the search on a cache miss.
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A page of properties matching the filters.
+     */
+    public Page<Property> search(PropertySearchEngine engine, String query, Double maxPrice, Double maxSize,
+                                 Pageable pageable) {
+        return cached(Kind.PAGE, query, maxPrice, maxSize, pageable,
+                (q, price, size) -> engine.search(q, price, size, pageable));
+    }
+
+    /**
+     * Returns the cached slice for the given search, running it on the engine if it is not cached.
+     *
+     * @param engine   The engine used to run the search on a cache miss.
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A slice of properties matching the filters.
+     */
+    public Slice<Property> searchSlice(PropertySearchEngine engine, String query, Double maxPrice, Double maxSize,
+                                       Pageable pageable) {
+        return cached(Kind.SLICE, query, maxPrice, maxSize, pageable,
+                (q, price, size) -> engine.searchSlice(q, price, size, pageable));
+    }
+
+    /**
+     * Returns the cached page of summaries for the given search, running it on the engine if it is not cached.
+     *
+     * @param engine   The engine used to run the search on a cache miss.
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A page of summaries of the properties matching the filters.
+     */
+    public Page<PropertySummary> searchSummaries(PropertySearchEngine engine, String query, Double maxPrice,
+                                                 Double maxSize, Pageable pageable) {
+        return cached(Kind.SUMMARY_PAGE, query, maxPrice, maxSize, pageable,
+                (q, price, size) -> engine.searchSummaries(q, price, size, pageable));
+    }
+
+    /**
+     * Returns the cached slice of summaries for the given search, running it on the engine if it is not cached.
+     *
+     * @param engine   The engine used to run the search on a cache miss.
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A slice of summaries of the properties matching the filters.
+     */
+    public Slice<PropertySummary> searchSummarySlice(PropertySearchEngine engine, String query, Double maxPrice,
+                                                     Double maxSize, Pageable pageable) {
+        return cached(Kind.SUMMARY_SLICE, query, maxPrice, maxSize, pageable,
+                (q, price, size) -> engine.searchSummarySlice(q, price, size, pageable));
+    }
+
+    private <T> T cached(Kind kind, String query, Double maxPrice, Double maxSize, Pageable pageable, Search<T> search) {
+        String normalizedQuery = normalizeQuery(query);
+        Double normalizedMaxPrice = normalizeBound(maxPrice);
+        Double normalizedMaxSize = normalizeBound(maxSize);
+        Key key = new Key(kind, version.get(), normalizedQuery, normalizedMaxPrice, normalizedMaxSize,
+                pageable.getPageNumber(), pageable.getPageSize());
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        // Checked after reading the version, so that a write in between is not mistaken for an older one
+        if (readsAreCurrent()) {
+            return cache.get(key, () -> search.run(normalizedQuery, normalizedMaxPrice, normalizedMaxSize));
+        }
+        Cache.ValueWrapper cached = cache.get(key);
+        @SuppressWarnings("unchecked")
+        T result = cached != null ? (T) cached.get() : search.run(normalizedQuery, normalizedMaxPrice, normalizedMaxSize);
+        return result;
+    }
+
+    /**
+     * Tells whether the reads of the current thread see every write made so far: there are no read replicas,
+     * the thread is pinned to the primary, or the last write is older than the replication window.
+     * Results read otherwise may come from a lagging replica and must neither be cached nor tagged
+     * with the current version.
+     *
+     * @return Whether the reads of the current thread are up to date.
+     */
+    public boolean readsAreCurrent() {
+        return replicaUrls.length == 0
+                || ReplicaRoutingDataSource.isPinnedToPrimary()
+                || System.nanoTime() - invalidatedAt > replicationWindow.toNanos();
+    }
+
+    /**
+     * Returns a tag of the current version stamp, unique to this process.
+     * The tag changes on every {@link #invalidate()}.
+     *
+     * @return The version tag.
+     */
+    public String versionTag() {
+        return epoch + "-" + version.get();
+    }
+
+    /**
+     * Makes every page cached so far unreachable.
+     */
+    public void invalidate() {
+        // Set first, so that a reader seeing the new version also sees the write as recent
+        invalidatedAt = System.nanoTime();
+        version.incrementAndGet();
+    }
+
+    static String normalizeQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        String trimmed = query.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    static Double normalizeBound(Double bound) {
+        if (bound == null || bound.isNaN() || bound == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return bound == 0.0 ? 0.0 : bound;
+    }
+}
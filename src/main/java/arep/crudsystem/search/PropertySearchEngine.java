@@ -0,0 +1,100 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Backend used by the property service to answer search requests.
+ * Implementations may keep their own structures (e.g. an inverted index); the outbox dispatcher
+ * notifies them of every saved or deleted property so they stay in sync with the database.
+ */
+public interface PropertySearchEngine {
+
+    /**
+     * Searches for properties based on filters and returns them with pagination.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A page of properties matching the filters.
+     */
+    Page<Property> search(String query, Double maxPrice, Double maxSize, Pageable pageable);
+
+    /**
+     * Searches for properties based on filters and returns a slice of the requested page,
+     * without computing the total number of matches.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A slice of properties matching the filters.
+     */
+    Slice<Property> searchSlice(String query, Double maxPrice, Double maxSize, Pageable pageable);
+
+    /**
+     * Searches for properties based on filters and returns their summaries with pagination.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A page of summaries of the properties matching the filters.
+     */
+    Page<PropertySummary> searchSummaries(String query, Double maxPrice, Double maxSize, Pageable pageable);
+
+    /**
+     * Searches for properties based on filters and returns their summaries,
+     * without computing the total number of matches.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param pageable The pagination information.
+     * @return A slice of summaries of the properties matching the filters.
+     */
+    Slice<PropertySummary> searchSummarySlice(String query, Double maxPrice, Double maxSize, Pageable pageable);
+
+    /**
+     * Searches for properties based on filters and returns the slice that follows the given cursor.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param cursor   The position of the last property of the previous page.
+     * @param size     The number of properties per page.
+     * @return A slice of matching properties following the cursor.
+     */
+    Slice<Property> searchAfter(String query, Double maxPrice, Double maxSize, PropertyCursor cursor, int size);
+
+    /**
+     * Counts the properties matching the filters, with the same matching rules as the searches.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @return The number of matching properties.
+     */
+    long count(String query, Double maxPrice, Double maxSize);
+
+    /**
+     * Notifies the engine that a property was created or updated.
+     *
+     * @param property The saved property.
+     */
+    default void propertySaved(Property property) {
+    }
+
+    /**
+     * Notifies the engine that a property was deleted.
+     *
+     * @param id The ID of the deleted property.
+     */
+    default void propertyDeleted(Long id) {
+    }
+}
@@ -0,0 +1,38 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.event.PropertyChangeConsumer;
+import arep.crudsystem.event.PropertyChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the search engine in sync with committed property changes.
+ * Runs before the other consumers, so that clients told about a change find it when they search.
+ * The search cache is invalidated once more after the engine is updated, since pages cached
+ * while the change was still on its way may reflect the engine's previous state.
+ */
+@Component
+@Order(0)
+public class PropertySearchIndexUpdater implements PropertyChangeConsumer {
+
+    @Autowired
+    private PropertySearchEngine searchEngine;
+
+    @Autowired
+    private PropertySearchCache searchCache;
+
+    @Override
+    public void onChanges(List<PropertyChangeEvent> changes) {
+        for (PropertyChangeEvent change : changes) {
+            if (change.type() == PropertyChangeEvent.Type.DELETED) {
+                searchEngine.propertyDeleted(change.id());
+            } else {
+                searchEngine.propertySaved(change.property());
+            }
+        }
+        searchCache.invalidate();
+    }
+}
@@ -0,0 +1,227 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.model.Property;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over the address and description of properties.
+ * Every indexed text is split into overlapping 3-character grams; a query is answered by
+ * intersecting the posting lists of its own grams and then verifying the substring match,
+ * so it never needs to scan the whole table. Price and size are kept next to the text so that
+ * the numeric filters can be applied without going back to the database.
+ * Matching is case-insensitive.
+ */
+public class PropertyTextIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A ranked search hit.
+     *
+     * @param id    The ID of the matching property.
+     * @param price The price of the matching property.
+     * @param score The relevance score (higher is better).
+     */
+    public record Match(Long id, Double price, int score) {
+    }
+
+    private record Entry(Long id, String address, String description, Double price, Double size) {
+    }
+
+    /**
+     * Adds a property to the index, replacing any previous version of it.
+     *
+     * @param property The property to index.
+     */
+    public void put(Property property) {
+        Entry entry = new Entry(property.getId(), normalize(property.getAddress()),
+                normalize(property.getDescription()), property.getPrice(), property.getSize());
+        lock.writeLock().lock();
+        try {
+            removeEntry(property.getId());
+            entries.put(entry.id(), entry);
+            for (String gram : grams(entry.address(), entry.description())) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a property from the index.
+     *
+     * @param id The ID of the property to remove.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every property from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed properties.
+     *
+     * @return The number of indexed properties.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the properties whose address or description contains the query and that pass the filters.
+     * Matches in the address rank above matches in the description, and an address that starts
+     * with the query ranks highest; ties are ordered by ID.
+     *
+     * @param query    The text to look for (required).
+     * @param maxPrice The maximum price (optional).
+     * @param maxSize  The maximum size (optional).
+     * @return The matches, best first.
+     */
+    public List<Match> search(String query, Double maxPrice, Double maxSize) {
+        String needle = normalize(query);
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(needle)) {
+                Entry entry = entries.get(id);
+                if ((maxPrice != null && entry.price() > maxPrice) || (maxSize != null && entry.size() > maxSize)) {
+                    continue;
+                }
+                int score = score(entry, needle);
+                if (score > 0) {
+                    matches.add(new Match(id, entry.price(), score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::score).reversed().thenComparing(Match::id));
+        return matches;
+    }
+
+    /**
+     * Counts the properties whose address or description contains the query and that pass the filters,
+     * without ranking them.
+     *
+     * @param query    The text to look for (required).
+     * @param maxPrice The maximum price (optional).
+     * @param maxSize  The maximum size (optional).
+     * @return The number of matches.
+     */
+    public int count(String query, Double maxPrice, Double maxSize) {
+        String needle = normalize(query);
+        int count = 0;
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(needle)) {
+                Entry entry = entries.get(id);
+                if ((maxPrice == null || entry.price() <= maxPrice) && (maxSize == null || entry.size() <= maxSize)
+                        && score(entry, needle) > 0) {
+                    count++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return count;
+    }
+
+    private Set<Long> candidates(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            return entries.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(needle, "")) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static int score(Entry entry, String needle) {
+        int score = 0;
+        if (entry.address().startsWith(needle)) {
+            score += 3;
+        } else if (entry.address().contains(needle)) {
+            score += 2;
+        }
+        if (entry.description().contains(needle)) {
+            score += 1;
+        }
+        return score;
+    }
+
+    private void removeEntry(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous.address(), previous.description())) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String... texts) {
+        Set<String> grams = new HashSet<>();
+        for (String text : texts) {
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                grams.add(text.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,47 @@
+package arep.crudsystem.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filter that throttles {@code POST /auth/login} before any password is verified.
+ * Rejected attempts get a 429 status with a {@code Retry-After} header.
+ * Attempts are keyed on the client address as resolved from trusted proxies' forwarded headers
+ * ({@code server.forward-headers-strategy}), not on the address of the proxy itself.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private final LoginRateLimiter rateLimiter;
+
+    public LoginRateLimitFilter(LoginRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !("POST".equals(request.getMethod()) && "/auth/login".equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // With forwarded headers enabled, the remote address is already the client's, not the proxy's
+        long retryAfter = rateLimiter.tryAcquire(request.getParameter("username"), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many login attempts\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,72 @@
+package arep.crudsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Token-bucket throttling of login attempts.
+ * An attempt needs a token from a global bucket, which caps the total BCrypt work per second,
+ * from the bucket of the client IP and from the bucket of the username.
+ * The global bucket is charged last, so attempts rejected for their IP or username do not use up the
+ * capacity left for other clients. Per-key buckets are kept in a bounded cache and dropped once idle.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final TokenBucket global;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+    private final int userCapacity;
+    private final double userRefillPerSecond;
+
+    public LoginRateLimiter(@Value("${auth.rate-limit.global-per-second:50}") double globalPerSecond,
+                            @Value("${auth.rate-limit.ip-capacity:20}") int ipCapacity,
+                            @Value("${auth.rate-limit.ip-per-minute:20}") double ipPerMinute,
+                            @Value("${auth.rate-limit.user-capacity:5}") int userCapacity,
+                            @Value("${auth.rate-limit.user-per-minute:5}") double userPerMinute,
+                            @Value("${auth.rate-limit.maximum-tracked-keys:100000}") long maximumTrackedKeys) {
+        this.global = new TokenBucket(globalPerSecond, globalPerSecond);
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipPerMinute / 60.0;
+        this.userCapacity = userCapacity;
+        this.userRefillPerSecond = userPerMinute / 60.0;
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maximumTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.userBuckets = Caffeine.newBuilder()
+                .maximumSize(maximumTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Tries to admit a login attempt.
+     *
+     * @param username The username of the attempt (may be {@code null}).
+     * @param ip       The client IP address.
+     * @return 0 if the attempt is admitted, otherwise the suggested number of seconds to wait.
+     */
+    public long tryAcquire(String username, String ip) {
+        TokenBucket ipBucket = ipBuckets.get(ip, key -> new TokenBucket(ipCapacity, ipRefillPerSecond));
+        if (!ipBucket.tryConsume()) {
+            return Math.max(1, ipBucket.secondsUntilAvailable());
+        }
+        if (username != null) {
+            TokenBucket userBucket = userBuckets.get(username, key -> new TokenBucket(userCapacity, userRefillPerSecond));
+            if (!userBucket.tryConsume()) {
+                return Math.max(1, userBucket.secondsUntilAvailable());
+            }
+        }
+        if (!global.tryConsume()) {
+            return Math.max(1, global.secondsUntilAvailable());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,54 @@
+package arep.crudsystem.security;
+
+/**
+ * Thread-safe token bucket.
+ * The bucket holds up to {@code capacity} tokens and is refilled continuously at
+ * {@code refillPerSecond} tokens per second; each permitted request takes one token.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return {@code true} if a token was taken.
+     */
+    synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of seconds until a token becomes available.
+     *
+     * @return The wait in seconds, rounded up (0 if a token is available now).
+     */
+    synchronized long secondsUntilAvailable() {
+        refill();
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000.0);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
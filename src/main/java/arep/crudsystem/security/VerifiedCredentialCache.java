@@ -0,0 +1,101 @@
+package arep.crudsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived cache of credentials that were recently verified with BCrypt.
+ * Entries are keyed on an HMAC-SHA256 of (username, password) under a random per-process key,
+ * so plain passwords are never stored and keys are useless outside this process.
+ * Each entry remembers the stored password hash it was verified against; a hit only counts
+ * if the user's current hash is still the same, so a password change invalidates it.
+ * Its hit ratio is published as the "verifiedCredentials" cache metrics.
+ */
+@Component
+public class VerifiedCredentialCache implements MeterBinder {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, String> verified;
+    private final SecretKeySpec key;
+
+    public VerifiedCredentialCache(@Value("${auth.credential-cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${auth.credential-cache.ttl:5m}") Duration ttl) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    /**
+     * Checks whether the credentials were recently verified against the given stored hash.
+     *
+     * @param username   The username.
+     * @param password   The plain password.
+     * @param storedHash The user's current password hash.
+     * @return {@code true} if the same credentials matched the same hash recently.
+     */
+    public boolean isVerified(String username, String password, String storedHash) {
+        String cachedHash = verified.getIfPresent(keyOf(username, password));
+        return cachedHash != null && MessageDigest.isEqual(
+                cachedHash.getBytes(StandardCharsets.UTF_8), storedHash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records that the credentials matched the given stored hash.
+     *
+     * @param username   The username.
+     * @param password   The plain password.
+     * @param storedHash The password hash the credentials were verified against.
+     */
+    public void markVerified(String username, String password, String storedHash) {
+        verified.put(keyOf(username, password), storedHash);
+    }
+
+    /**
+     * Returns the underlying cache, e.g. to read its statistics.
+     *
+     * @return The native Caffeine cache.
+     */
+    public Cache<String, String> getNativeCache() {
+        return verified;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same tag keys as the Spring-managed caches, which Prometheus requires for meters sharing a name
+        CaffeineCacheMetrics.monitor(registry, verified, "verifiedCredentials",
+                "cache.manager", "verifiedCredentialCache", "name", "verifiedCredentials");
+    }
+
+    private String keyOf(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package arep.crudsystem.service;
+
+/**
+ * Outcome of a single item of a bulk operation.
+ *
+ * @param index  The position of the item in the request (starting from 0).
+ * @param id     The ID of the affected property, or {@code null} if it is unknown.
+ * @param status The outcome of the item.
+ * @param error  The reason of the failure, or {@code null} if the item succeeded.
+ */
+public record BatchItemResult(int index, Long id, Status status, String error) {
+
+    /**
+     * Possible outcomes of a bulk item.
+     */
+    public enum Status {
+        CREATED, UPDATED, DELETED, FAILED
+    }
+
+    static BatchItemResult succeeded(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Status.FAILED, error);
+    }
+}
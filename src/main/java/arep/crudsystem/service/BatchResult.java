@@ -0,0 +1,22 @@
+package arep.crudsystem.service;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Result of a bulk operation, with one entry per item of the request.
+ *
+ * @param succeeded The number of items that succeeded.
+ * @param failed    The number of items that failed.
+ * @param items     The per-item results, in request order.
+ */
+public record BatchResult(int succeeded, int failed, List<BatchItemResult> items) {
+
+    static BatchResult of(List<BatchItemResult> items) {
+        List<BatchItemResult> ordered = items.stream()
+                .sorted(Comparator.comparingInt(BatchItemResult::index))
+                .toList();
+        int failed = (int) ordered.stream().filter(item -> item.status() == BatchItemResult.Status.FAILED).count();
+        return new BatchResult(ordered.size() - failed, failed, ordered);
+    }
+}
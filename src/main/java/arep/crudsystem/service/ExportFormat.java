@@ -0,0 +1,49 @@
+package arep.crudsystem.service;
+
+/**
+ * Formats supported by the property export.
+ */
+public enum ExportFormat {
+
+    /**
+     * Newline-delimited JSON, one property object per line.
+     */
+    NDJSON("ndjson", "application/x-ndjson"),
+
+    /**
+     * Comma-separated values with a header row.
+     */
+    CSV("csv", "text/csv");
+
+    private final String parameter;
+    private final String contentType;
+
+    ExportFormat(String parameter, String contentType) {
+        this.parameter = parameter;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Resolves a format from its request parameter value.
+     *
+     * @param parameter The value of the {@code format} parameter (e.g. "ndjson" or "csv").
+     * @return The matching format.
+     * @throws IllegalArgumentException If the value is not a supported format.
+     */
+    public static ExportFormat fromParameter(String parameter) {
+        for (ExportFormat format : values()) {
+            if (format.parameter.equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + parameter);
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+}
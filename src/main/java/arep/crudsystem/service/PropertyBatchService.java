@@ -0,0 +1,313 @@
+package arep.crudsystem.service;
+
+import arep.crudsystem.config.CacheConfig;
+import arep.crudsystem.event.PropertyChangeEvent;
+import arep.crudsystem.event.PropertyOutbox;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.search.PropertySearchCache;
+import arep.crudsystem.sharding.PropertyShards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for bulk property operations.
+ * Items are written in chunks of {@code property.batch.chunk-size}, one transaction per chunk,
+ * so Hibernate can send them as JDBC batches. If a chunk fails, its items are retried one by one
+ * so that a bad item only fails itself and never aborts the rest of the request.
+ * Every item written is recorded in the {@link PropertyOutbox} within its chunk's transaction.
+ * When the properties table is sharded, a chunk is split by owning shard and each part gets its own transaction.
+ */
+@Service
+public class PropertyBatchService {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertySearchCache searchCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PropertyOutbox outbox;
+
+    @Autowired
+    private PropertyShards shards;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${property.batch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Creates the given properties.
+     * The iterator is consumed lazily; an item whose {@code next()} call throws
+     * {@link IllegalArgumentException} (e.g. a malformed line) is reported as failed.
+     *
+     * @param properties The properties to create.
+     * @return The per-item results.
+     */
+    public BatchResult createProperties(Iterator<Property> properties) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Property> chunk = new ArrayList<>();
+        int index = 0;
+        while (properties.hasNext()) {
+            try {
+                Property property = properties.next();
+                String error = validate(property);
+                if (error != null) {
+                    results.add(BatchItemResult.failed(index, null, error));
+                } else {
+                    property.setId(shards.newId());
+                    property.setVersion(null);
+                    indexes.add(index);
+                    chunk.add(property);
+                }
+            } catch (IllegalArgumentException e) {
+                results.add(BatchItemResult.failed(index, null, e.getMessage()));
+            }
+            index++;
+            if (chunk.size() == chunkSize) {
+                createChunk(indexes, chunk, results);
+            }
+        }
+        createChunk(indexes, chunk, results);
+        searchCache.invalidate();
+        return BatchResult.of(results);
+    }
+
+    /**
+     * Updates the given properties, each identified by its ID.
+     * Each item must carry the version it is based on, and is rejected if the stored property has a different one.
+     *
+     * @param properties The updated property details, including their IDs.
+     * @return The per-item results.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES_CACHE, allEntries = true)
+    public BatchResult updateProperties(List<Property> properties) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Property> chunk = new ArrayList<>();
+        for (int index = 0; index < properties.size(); index++) {
+            Property property = properties.get(index);
+            String error = property.getId() == null ? "id is required"
+                    : property.getVersion() == null ? "version is required" : validate(property);
+            if (error != null) {
+                results.add(BatchItemResult.failed(index, property.getId(), error));
+                continue;
+            }
+            indexes.add(index);
+            chunk.add(property);
+            if (chunk.size() == chunkSize) {
+                updateChunk(indexes, chunk, results);
+            }
+        }
+        updateChunk(indexes, chunk, results);
+        searchCache.invalidate();
+        return BatchResult.of(results);
+    }
+
+    /**
+     * Deletes the properties with the given IDs.
+     * Each chunk is removed with a single {@code DELETE ... WHERE id IN (...)} statement.
+     *
+     * @param ids The IDs of the properties to delete.
+     * @return The per-item results.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES_CACHE, allEntries = true)
+    public BatchResult deleteProperties(List<Long> ids) {
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            int chunkStart = from;
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            shards.positionsByShard(chunk).forEach((shard, positions) -> shards.onShard(shard, () -> {
+                deleteChunk(chunkStart, chunk, positions, results);
+                return null;
+            }));
+        }
+        searchCache.invalidate();
+        return BatchResult.of(results);
+    }
+
+    private void deleteChunk(int from, List<Long> chunk, List<Integer> positions, List<BatchItemResult> results) {
+        List<Long> ids = select(chunk, positions);
+        try {
+            Set<Long> existing = transactionTemplate.execute(status -> {
+                Set<Long> found = new HashSet<>(propertyRepository.findExistingIds(ids));
+                propertyRepository.deleteAllByIdInBatch(found);
+                outbox.recordAll(PropertyChangeEvent.Type.DELETED, found);
+                return found;
+            });
+            for (int position : positions) {
+                Long id = chunk.get(position);
+                if (existing.contains(id)) {
+                    results.add(BatchItemResult.succeeded(from + position, id, BatchItemResult.Status.DELETED));
+                } else {
+                    results.add(BatchItemResult.failed(from + position, id, "Propiedad no encontrada"));
+                }
+            }
+        } catch (RuntimeException e) {
+            for (int position : positions) {
+                results.add(BatchItemResult.failed(from + position, chunk.get(position), e.getMessage()));
+            }
+        }
+    }
+
+    private void createChunk(List<Integer> indexes, List<Property> chunk, List<BatchItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        forEachShardPart(indexes, chunk, (partIndexes, part) -> createPart(partIndexes, part, results));
+        indexes.clear();
+        chunk.clear();
+    }
+
+    private void createPart(List<Integer> indexes, List<Property> chunk, List<BatchItemResult> results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                propertyRepository.saveAll(chunk);
+                outbox.recordAll(PropertyChangeEvent.Type.CREATED, chunk.stream().map(Property::getId).toList());
+                flushAndClear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                created(indexes.get(i), chunk.get(i), results);
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < chunk.size(); i++) {
+                Property property = chunk.get(i);
+                // The ID is kept: it was generated for the shard this part runs on
+                property.setVersion(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        propertyRepository.save(property);
+                        outbox.record(PropertyChangeEvent.Type.CREATED, property.getId());
+                        flushAndClear();
+                    });
+                    created(indexes.get(i), property, results);
+                } catch (RuntimeException itemError) {
+                    results.add(BatchItemResult.failed(indexes.get(i), null, itemError.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void updateChunk(List<Integer> indexes, List<Property> chunk, List<BatchItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        forEachShardPart(indexes, chunk, (partIndexes, part) -> updatePart(partIndexes, part, results));
+        indexes.clear();
+        chunk.clear();
+    }
+
+    private void updatePart(List<Integer> indexes, List<Property> chunk, List<BatchItemResult> results) {
+        List<BatchItemResult> chunkResults = new ArrayList<>();
+        try {
+            chunkResults.addAll(transactionTemplate.execute(status -> applyUpdates(indexes, chunk)));
+        } catch (RuntimeException e) {
+            for (int i = 0; i < chunk.size(); i++) {
+                List<Integer> itemIndex = List.of(indexes.get(i));
+                List<Property> item = List.of(chunk.get(i));
+                try {
+                    chunkResults.addAll(transactionTemplate.execute(status -> applyUpdates(itemIndex, item)));
+                } catch (RuntimeException itemError) {
+                    chunkResults.add(BatchItemResult.failed(indexes.get(i), chunk.get(i).getId(), itemError.getMessage()));
+                }
+            }
+        }
+        results.addAll(chunkResults);
+    }
+
+    /**
+     * Splits a chunk by the shard owning each property and runs the action for each part on its shard.
+     */
+    private void forEachShardPart(List<Integer> indexes, List<Property> chunk,
+                                  BiConsumer<List<Integer>, List<Property>> action) {
+        Map<Integer, List<Integer>> positionsByShard =
+                shards.positionsByShard(chunk.stream().map(Property::getId).toList());
+        positionsByShard.forEach((shard, positions) -> shards.onShard(shard, () -> {
+            action.accept(select(indexes, positions), select(chunk, positions));
+            return null;
+        }));
+    }
+
+    private static <T> List<T> select(List<T> items, List<Integer> positions) {
+        if (positions.size() == items.size()) {
+            return new ArrayList<>(items);
+        }
+        List<T> selected = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            selected.add(items.get(position));
+        }
+        return selected;
+    }
+
+    private List<BatchItemResult> applyUpdates(List<Integer> indexes, List<Property> chunk) {
+        Map<Long, Property> existing = propertyRepository.findAllById(chunk.stream().map(Property::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Property details = chunk.get(i);
+            Property property = existing.get(details.getId());
+            if (property == null) {
+                results.add(BatchItemResult.failed(indexes.get(i), details.getId(), "Propiedad no encontrada"));
+                continue;
+            }
+            if (!details.getVersion().equals(property.getVersion())) {
+                results.add(BatchItemResult.failed(indexes.get(i), details.getId(),
+                        "The property was modified by another user"));
+                continue;
+            }
+            property.setAddress(details.getAddress());
+            property.setPrice(details.getPrice());
+            property.setSize(details.getSize());
+            property.setDescription(details.getDescription());
+            results.add(BatchItemResult.succeeded(indexes.get(i), details.getId(), BatchItemResult.Status.UPDATED));
+        }
+        outbox.recordAll(PropertyChangeEvent.Type.UPDATED, results.stream()
+                .filter(result -> result.status() == BatchItemResult.Status.UPDATED)
+                .map(BatchItemResult::id)
+                .toList());
+        flushAndClear();
+        return results;
+    }
+
+    private void created(int index, Property property, List<BatchItemResult> results) {
+        results.add(BatchItemResult.succeeded(index, property.getId(), BatchItemResult.Status.CREATED));
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static String validate(Property property) {
+        if (property == null) {
+            return "property is required";
+        }
+        if (property.getAddress() == null || property.getPrice() == null || property.getSize() == null) {
+            return "address, price and size are required";
+        }
+        return null;
+    }
+}
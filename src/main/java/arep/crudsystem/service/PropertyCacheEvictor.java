@@ -0,0 +1,36 @@
+package arep.crudsystem.service;
+
+import arep.crudsystem.config.CacheConfig;
+import arep.crudsystem.event.PropertyChangeConsumer;
+import arep.crudsystem.event.PropertyChangeEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts changed properties from the cache of properties by ID.
+ * The writing instance already evicts its own entry; this covers the other instances sharing the database,
+ * which would otherwise serve the previous version, and its ETag, until the entry expires.
+ * Runs before the other consumers, so that clients told about a change read it.
+ */
+@Component
+@Order(0)
+public class PropertyCacheEvictor implements PropertyChangeConsumer {
+
+    private final CacheManager cacheManager;
+
+    public PropertyCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onChanges(List<PropertyChangeEvent> changes) {
+        Cache cache = cacheManager.getCache(CacheConfig.PROPERTIES_CACHE);
+        for (PropertyChangeEvent change : changes) {
+            cache.evict(change.id());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package arep.crudsystem.service;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.sharding.PropertyShards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service class that exports the full property catalog.
+ * Properties are read from a forward-only cursor and written as they arrive;
+ * the persistence context is cleared periodically so heap usage stays flat regardless of table size.
+ * A sharded table is exported one shard after the other, each from its own read-only transaction.
+ */
+@Service
+public class PropertyExportService {
+
+    private static final int CLEAR_INTERVAL = PropertyRepository.EXPORT_FETCH_SIZE;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PropertyShards shards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Writes every property, ordered by ID, to the given output stream.
+     * When the table is sharded, properties are ordered by ID within each shard.
+     *
+     * @param output The stream to write to. It is flushed but not closed.
+     * @param format The output format.
+     * @return The number of exported properties.
+     * @throws IOException If writing fails.
+     */
+    @Transactional(readOnly = true)
+    public long exportProperties(OutputStream output, ExportFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write("id,address,price,size,description\n");
+        }
+        long count;
+        if (shards.getCount() == 1) {
+            count = exportShard(writer, format);
+        } else {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+            readOnlyTransaction.setReadOnly(true);
+            long[] total = new long[1];
+            try {
+                shards.forEachShard(shard -> total[0] += readOnlyTransaction.execute(status -> {
+                    try {
+                        return exportShard(writer, format);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            count = total[0];
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long exportShard(Writer writer, ExportFormat format) throws IOException {
+        long count = 0;
+        try (Stream<Property> properties = propertyRepository.streamAll()) {
+            Iterator<Property> iterator = properties.iterator();
+            while (iterator.hasNext()) {
+                Property property = iterator.next();
+                writer.write(format == ExportFormat.CSV ? toCsv(property) : objectMapper.writeValueAsString(property));
+                writer.write('\n');
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private static String toCsv(Property property) {
+        return property.getId() + "," + csvField(property.getAddress()) + "," + property.getPrice() + ","
+                + property.getSize() + "," + csvField(property.getDescription());
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -1,17 +1,42 @@
 package arep.crudsystem.service;
 
+import arep.crudsystem.config.CacheConfig;
+import arep.crudsystem.event.PropertyChangeEvent;
+import arep.crudsystem.event.PropertyOutbox;
 import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
 import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.search.PropertyCountCache;
+import arep.crudsystem.search.PropertySearchCache;
+import arep.crudsystem.search.PropertySearchEngine;
+import arep.crudsystem.sharding.PropertyShards;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.Optional;
 
 /**
  * Service class for managing properties.
  * This class contains business logic for CRUD operations, pagination, and search functionality.
+ * Reads run in read-only transactions, so Hibernate skips the dirty-checking snapshots of the
+ * entities they load and never flushes them.
+ * Writes record their change in the {@link PropertyOutbox} within their own transaction and return once it
+ * commits; the search index and the event stream are updated afterwards by the outbox dispatcher.
+ * The listing version is still bumped right away, so a caller revalidating a listing sees its own write.
+ * Reads and writes of a single property run on the shard that owns it; listings are merged from every shard
+ * by {@link PropertyShards}.
  */
 @Service
 public class PropertyService {
@@ -19,6 +44,21 @@ public class PropertyService {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private PropertySearchEngine searchEngine;
+
+    @Autowired
+    private PropertySearchCache searchCache;
+
+    @Autowired
+    private PropertyCountCache countCache;
+
+    @Autowired
+    private PropertyOutbox outbox;
+
+    @Autowired
+    private PropertyShards shards;
+
     /**
      * Retrieves all properties with pagination.
      *
@@ -26,13 +66,15 @@ public class PropertyService {
      * @param size The number of properties per page.
      * @return A page of properties.
      */
+    @Transactional(readOnly = true)
     public Page<Property> getAllProperties(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return propertyRepository.findAll(pageable);
+        return shards.page(pageable, Comparator.comparing(Property::getId), propertyRepository::findAll);
     }
 
     /**
      * Searches for properties based on filters and returns them with pagination.
+     * Result pages are cached until the next write.
      *
      * @param query    The search query to filter properties by address or description (optional).
      * @param maxPrice The maximum price to filter properties (optional).
@@ -41,47 +83,202 @@ public class PropertyService {
      * @param size     The number of properties per page.
      * @return A page of properties matching the filters.
      */
+    @Transactional(readOnly = true)
     public Page<Property> searchProperties(String query, Double maxPrice, Double maxSize, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return propertyRepository.search(query, maxPrice, maxSize, pageable);
+        return searchCache.search(searchEngine, query, maxPrice, maxSize, pageable);
+    }
+
+    /**
+     * Searches for properties based on filters and returns the requested page without a total count,
+     * so only the page query is executed. Result slices are cached until the next write.
+     * Without filters this lists all properties.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (starting from 0).
+     * @param size     The number of properties per page.
+     * @return A slice of properties matching the filters.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Property> searchPropertiesSlice(String query, Double maxPrice, Double maxSize, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return searchCache.searchSlice(searchEngine, query, maxPrice, maxSize, pageable);
+    }
+
+    /**
+     * Searches for properties based on filters and returns the requested page with an approximate total.
+     * The total comes from a periodically refreshed count instead of a COUNT query per request;
+     * it is corrected when the page itself shows the real end of the results.
+     * Without filters this lists all properties.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (starting from 0).
+     * @param size     The number of properties per page.
+     * @return A page of properties matching the filters, with an approximate total.
+     */
+    @Transactional(readOnly = true)
+    public Page<Property> searchPropertiesWithApproximateTotal(String query, Double maxPrice, Double maxSize,
+                                                               int page, int size) {
+        return withApproximateTotal(searchPropertiesSlice(query, maxPrice, maxSize, page, size),
+                query, maxPrice, maxSize);
+    }
+
+    /**
+     * Searches for properties based on filters and returns the summaries of the requested page.
+     * Only the ID, address, price and size columns are read. Result pages are cached until the next write.
+     * Without filters this lists all properties.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (starting from 0).
+     * @param size     The number of properties per page.
+     * @return A page of summaries of the properties matching the filters.
+     */
+    @Transactional(readOnly = true)
+    public Page<PropertySummary> searchPropertySummaries(String query, Double maxPrice, Double maxSize,
+                                                         int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return searchCache.searchSummaries(searchEngine, query, maxPrice, maxSize, pageable);
+    }
+
+    /**
+     * Searches for properties based on filters and returns the summaries of the requested page
+     * without a total count. Result slices are cached until the next write.
+     * Without filters this lists all properties.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (starting from 0).
+     * @param size     The number of properties per page.
+     * @return A slice of summaries of the properties matching the filters.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PropertySummary> searchPropertySummariesSlice(String query, Double maxPrice, Double maxSize,
+                                                               int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return searchCache.searchSummarySlice(searchEngine, query, maxPrice, maxSize, pageable);
+    }
+
+    /**
+     * Searches for properties based on filters and returns the summaries of the requested page
+     * with an approximate total, as {@link #searchPropertiesWithApproximateTotal} does for full properties.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param page     The page number to retrieve (starting from 0).
+     * @param size     The number of properties per page.
+     * @return A page of summaries of the properties matching the filters, with an approximate total.
+     */
+    @Transactional(readOnly = true)
+    public Page<PropertySummary> searchPropertySummariesWithApproximateTotal(String query, Double maxPrice,
+                                                                             Double maxSize, int page, int size) {
+        return withApproximateTotal(searchPropertySummariesSlice(query, maxPrice, maxSize, page, size),
+                query, maxPrice, maxSize);
+    }
+
+    /**
+     * Retrieves the page of properties that follows the given cursor (keyset pagination).
+     * Unlike {@link #getAllProperties(int, int)}, the cost of a page does not grow with its depth
+     * and no total count is computed.
+     *
+     * @param cursor The position of the last property of the previous page.
+     * @param size   The number of properties per page.
+     * @return A slice of properties following the cursor.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Property> getPropertiesAfter(PropertyCursor cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        return shards.sliceAfter(size, cursor.getSortKey().order(), () -> switch (cursor.getSortKey()) {
+            case ID -> propertyRepository.findAfterId(cursor.getId(), pageable);
+            case PRICE -> propertyRepository.findAfterPrice(cursor.getPrice(), cursor.getId(), pageable);
+        });
+    }
+
+    /**
+     * Searches for properties based on filters and returns the page that follows the given cursor.
+     *
+     * @param query    The search query to filter properties by address or description (optional).
+     * @param maxPrice The maximum price to filter properties (optional).
+     * @param maxSize  The maximum size to filter properties (optional).
+     * @param cursor   The position of the last property of the previous page.
+     * @param size     The number of properties per page.
+     * @return A slice of matching properties following the cursor.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Property> searchPropertiesAfter(String query, Double maxPrice, Double maxSize,
+                                                 PropertyCursor cursor, int size) {
+        return searchEngine.searchAfter(query, maxPrice, maxSize, cursor, size);
+    }
+
+    /**
+     * Returns a tag that changes whenever any property is written.
+     * Every listing and search result stays the same while the tag does, so it can serve as their ETag.
+     * There is no tag while the results of this thread may come from a replica that lags behind the last write.
+     *
+     * @return The current listing version tag, or {@code null} if results cannot be tagged with it.
+     */
+    public String getListingVersion() {
+        return searchCache.readsAreCurrent() ? searchCache.versionTag() : null;
     }
 
     /**
      * Retrieves a property by its ID.
+     * Found properties are cached; the entry is evicted when the property is updated or deleted.
+     * Properties read from a replica that may lag behind the last write are not cached.
      *
      * @param id The ID of the property to retrieve.
      * @return An Optional containing the property if found, or empty if not found.
      */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PROPERTIES_CACHE, key = "#id", unless = "#result == null || !@propertySearchCache.readsAreCurrent()")
     public Optional<Property> getPropertyById(Long id) {
-        return propertyRepository.findById(id);
+        return shards.onOwner(id, () -> propertyRepository.findById(id));
     }
 
     /**
      * Creates a new property.
+     * Its ID is generated up front, which decides the shard it is stored on.
      *
      * @param property The property to create.
      * @return The created property.
      */
+    @Transactional
     public Property createProperty(Property property) {
-        return propertyRepository.save(property);
+        property.setId(shards.newId());
+        property.setVersion(null);
+        return shards.onOwner(property.getId(), () -> {
+            // Flushed right away so that the transaction is bound to the owning shard, not the one current on commit
+            Property saved = propertyRepository.saveAndFlush(property);
+            outbox.record(PropertyChangeEvent.Type.CREATED, saved.getId());
+            searchCache.invalidate();
+            return saved;
+        });
     }
 
     /**
      * Updates an existing property.
+     * The row is written with a single UPDATE statement, without loading or merging the entity.
+     * The details must carry the version the update is based on, and the update only succeeds when the
+     * stored property still has that version, so a concurrent edit is never overwritten silently.
      *
      * @param id             The ID of the property to update.
      * @param propertyDetails The updated property details.
      * @return The updated property.
+     * @throws IllegalArgumentException If the details carry no version.
      * @throws RuntimeException If the property with the given ID is not found.
+     * @throws ObjectOptimisticLockingFailureException If the property was modified since the given version.
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES_CACHE, key = "#id")
     public Property updateProperty(Long id, Property propertyDetails) {
-        Property property = propertyRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Propiedad no encontrada"));
-        property.setAddress(propertyDetails.getAddress());
-        property.setPrice(propertyDetails.getPrice());
-        property.setSize(propertyDetails.getSize());
-        property.setDescription(propertyDetails.getDescription());
-        return propertyRepository.save(property);
+        return shards.onOwner(id, () -> update(id, propertyDetails));
     }
 
     /**
@@ -89,7 +286,49 @@ public class PropertyService {
      *
      * @param id The ID of the property to delete.
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES_CACHE, key = "#id")
     public void deleteProperty(Long id) {
-        propertyRepository.deleteById(id);
+        shards.onOwner(id, () -> {
+            propertyRepository.deleteById(id);
+            outbox.record(PropertyChangeEvent.Type.DELETED, id);
+            searchCache.invalidate();
+            return null;
+        });
+    }
+
+    private Property update(Long id, Property propertyDetails) {
+        Long expectedVersion = propertyDetails.getVersion();
+        if (expectedVersion == null) {
+            throw new IllegalArgumentException("A version is required to update a property");
+        }
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = propertyRepository.updateFields(id, propertyDetails.getAddress(), propertyDetails.getPrice(),
+                propertyDetails.getSize(), propertyDetails.getDescription(), expectedVersion, updatedAt);
+        if (updated == 0) {
+            if (!propertyRepository.existsById(id)) {
+                throw new RuntimeException("Propiedad no encontrada");
+            }
+            throw new ObjectOptimisticLockingFailureException(Property.class, id);
+        }
+        Property property = new Property();
+        property.setId(id);
+        property.setAddress(propertyDetails.getAddress());
+        property.setPrice(propertyDetails.getPrice());
+        property.setSize(propertyDetails.getSize());
+        property.setDescription(propertyDetails.getDescription());
+        property.setUpdatedAt(updatedAt);
+        property.setVersion(expectedVersion + 1);
+        outbox.record(PropertyChangeEvent.Type.UPDATED, id);
+        searchCache.invalidate();
+        return property;
+    }
+
+    private <T> Page<T> withApproximateTotal(Slice<T> slice, String query, Double maxPrice, Double maxSize) {
+        long total = countCache.approximateCount(query, maxPrice, maxSize);
+        if (slice.hasNext()) {
+            total = Math.max(total, slice.getPageable().getOffset() + slice.getNumberOfElements() + 1);
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,9 @@ package arep.crudsystem.service;
 
 import arep.crudsystem.model.User;
 import arep.crudsystem.repository.UserRepository;
+import arep.crudsystem.security.VerifiedCredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,6 +18,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private VerifiedCredentialCache verifiedCredentialCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public User registerUser(String username, String password) {
         if (userRepository.findByUsername(username).isPresent()) {
             throw new RuntimeException("Username already exists");
@@ -29,6 +38,15 @@ public class UserService {
     public boolean authenticate(String username, String password) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return passwordEncoder.matches(password, user.getPassword());
+        if (verifiedCredentialCache.isVerified(username, password, user.getPassword())) {
+            return true;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean matches = passwordEncoder.matches(password, user.getPassword());
+        sample.stop(meterRegistry.timer("auth.bcrypt.verify", "outcome", matches ? "match" : "mismatch"));
+        if (matches) {
+            verifiedCredentialCache.markVerified(username, password, user.getPassword());
+        }
+        return matches;
     }
 }
\ No newline at end of file
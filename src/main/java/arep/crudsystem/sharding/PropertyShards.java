@@ -0,0 +1,323 @@
+package arep.crudsystem.sharding;
+
+import arep.crudsystem.sql.SqlRequestContext;
+import arep.crudsystem.sql.SqlRequestStatistics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The shards holding the properties table, and how work is routed to them.
+ * With {@code datasource.shards.urls} set, properties are spread over the primary database (shard 0) and
+ * the listed databases by a hash of their ID. A property's shard is fixed by its ID, which is generated
+ * up front by {@link SnowflakeIdGenerator}, so point reads and writes go straight to the owning shard.
+ * Listings and searches are sent to every shard in parallel, each in its own read-only transaction,
+ * and the sorted pages are merged. Without shards everything runs on the calling thread, as before.
+ * Since IDs are hashed, adding a shard moves existing properties and needs a data migration.
+ */
+@Component
+public class PropertyShards {
+
+    private final int count;
+
+    private final SnowflakeIdGenerator ids;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ExecutorService fanOut;
+
+    public PropertyShards(Environment environment, PlatformTransactionManager transactionManager) {
+        this.count = 1 + environment.getProperty("datasource.shards.urls", String[].class, new String[0]).length;
+        this.ids = SnowflakeIdGenerator.forWorker(environment.getProperty("property.id.worker-id", Integer.class, 0));
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        int threads = environment.getProperty("datasource.shards.fan-out-threads", Integer.class, 4 * count);
+        this.fanOut = count == 1 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "property-shards-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return The number of shards, 1 when the table is not sharded.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Generates the ID of a new property, which also decides its shard.
+     *
+     * @return A new property ID.
+     */
+    public long newId() {
+        return ids.nextId();
+    }
+
+    /**
+     * Returns the shard that owns a property.
+     *
+     * @param id The ID of the property.
+     * @return The shard number.
+     */
+    public int shardOf(long id) {
+        if (count == 1) {
+            return 0;
+        }
+        // MurmurHash3 finalizer: the low bits of an ID are a sequence that is mostly 0
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) count);
+    }
+
+    /**
+     * Runs work on the shard that owns a property.
+     * Inside a transaction, the work must execute the transaction's first statement: the transaction
+     * stays on the shard of its first statement, including the statements flushed on commit.
+     *
+     * @param id   The ID of the property.
+     * @param work The work.
+     * @return The result of the work.
+     */
+    public <T> T onOwner(long id, Supplier<T> work) {
+        return onShard(shardOf(id), work);
+    }
+
+    /**
+     * Runs work on the given shard.
+     * Inside a transaction, the work must execute the transaction's first statement: the transaction
+     * stays on the shard of its first statement, including the statements flushed on commit.
+     *
+     * @param shard The shard number.
+     * @param work  The work.
+     * @return The result of the work.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (count == 1) {
+            return work.get();
+        }
+        Integer previous = ShardRoutingDataSource.selectShard(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardRoutingDataSource.selectShard(previous);
+        }
+    }
+
+    /**
+     * Runs work on every shard, one after the other, on the calling thread.
+     *
+     * @param work The work, called with each shard number.
+     */
+    public void forEachShard(IntConsumer work) {
+        forEachShardOf(count, work);
+    }
+
+    /**
+     * Runs work on every shard, one after the other, on the calling thread.
+     * For infrastructure that runs before this component exists, e.g. schema creation.
+     *
+     * @param count The number of shards.
+     * @param work  The work, called with each shard number.
+     */
+    public static void forEachShardOf(int count, IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            Integer previous = ShardRoutingDataSource.selectShard(shard);
+            try {
+                work.accept(shard);
+            } finally {
+                ShardRoutingDataSource.selectShard(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs a read-only query on every shard in parallel and waits for all of them.
+     * Without shards, the query runs on the calling thread, within its transaction.
+     * The statements are accounted to the calling thread's request.
+     *
+     * @param query The query.
+     * @return The results, indexed by shard number.
+     */
+    public <T> List<T> fanOut(Supplier<T> query) {
+        if (count == 1) {
+            return List.of(query.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        SqlRequestStatistics statistics = SqlRequestContext.current();
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                SqlRequestContext.set(statistics);
+                try {
+                    return onShard(current, () -> readOnlyTransaction.execute(status -> query.get()));
+                } finally {
+                    SqlRequestContext.clear();
+                }
+            }, fanOut));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Reads a page from every shard and merges them.
+     * Each shard returns its first {@code offset + size} rows, which must be ordered by {@code order};
+     * unsorted pageables are read ordered by ID. The total is the sum of the shards' totals.
+     *
+     * @param pageable The requested page.
+     * @param order    The order of the rows, matching the pageable's sort.
+     * @param query    The page query run on each shard.
+     * @return The requested page of the merged rows.
+     */
+    public <T> Page<T> page(Pageable pageable, Comparator<? super T> order, Function<Pageable, Page<T>> query) {
+        if (count == 1) {
+            return query.apply(pageable);
+        }
+        List<Page<T>> pages = fanOut(() -> query.apply(top(pageable)));
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<T> content = merge(pages.stream().map(Page::getContent).toList(), order,
+                pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Reads a slice from every shard and merges them, as {@link #page} does but without totals.
+     *
+     * @param pageable The requested page.
+     * @param order    The order of the rows, matching the pageable's sort.
+     * @param query    The slice query run on each shard.
+     * @return The requested slice of the merged rows.
+     */
+    public <T> Slice<T> slice(Pageable pageable, Comparator<? super T> order, Function<Pageable, Slice<T>> query) {
+        if (count == 1) {
+            return query.apply(pageable);
+        }
+        List<Slice<T>> slices = fanOut(() -> query.apply(top(pageable)));
+        List<List<T>> runs = slices.stream().map(Slice::getContent).toList();
+        long end = pageable.getOffset() + pageable.getPageSize();
+        boolean hasNext = slices.stream().anyMatch(Slice::hasNext) || runs.stream().mapToLong(List::size).sum() > end;
+        return new SliceImpl<>(merge(runs, order, pageable.getOffset(), pageable.getPageSize()), pageable, hasNext);
+    }
+
+    /**
+     * Reads the slice that follows a cursor from every shard and merges them.
+     *
+     * @param size  The number of rows per slice.
+     * @param order The order of the rows, matching the cursor's sort key.
+     * @param query The cursor query run on each shard, returning up to {@code size} rows.
+     * @return The merged slice.
+     */
+    public <T> Slice<T> sliceAfter(int size, Comparator<? super T> order, Supplier<Slice<T>> query) {
+        if (count == 1) {
+            return query.get();
+        }
+        List<Slice<T>> slices = fanOut(query);
+        List<List<T>> runs = slices.stream().map(Slice::getContent).toList();
+        boolean hasNext = slices.stream().anyMatch(Slice::hasNext) || runs.stream().mapToLong(List::size).sum() > size;
+        return new SliceImpl<>(merge(runs, order, 0, size), slices.get(0).getPageable(), hasNext);
+    }
+
+    /**
+     * Groups positions of a list of property IDs by the shard owning each property.
+     *
+     * @param ids The property IDs.
+     * @return The positions in {@code ids}, in order, by shard number.
+     */
+    public Map<Integer, List<Integer>> positionsByShard(List<Long> ids) {
+        Map<Integer, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.computeIfAbsent(shardOf(ids.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        return positions;
+    }
+
+    /**
+     * Merges sorted runs (k-way merge) and returns the requested window of the merged sequence.
+     *
+     * @param runs  The runs, each sorted by {@code order}.
+     * @param order The order of the rows.
+     * @param skip  The number of merged rows to skip.
+     * @param limit The maximum number of rows to return.
+     * @return The merged rows from {@code skip} to {@code skip + limit}.
+     */
+    static <T> List<T> merge(List<? extends List<T>> runs, Comparator<? super T> order, long skip, int limit) {
+        // Each queue entry is {run, position}; the queue holds the next row of every unfinished run
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> order.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1])));
+        for (int run = 0; run < runs.size(); run++) {
+            if (!runs.get(run).isEmpty()) {
+                heads.add(new int[]{run, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>(limit);
+        long position = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> run = runs.get(head[0]);
+            if (position++ >= skip) {
+                merged.add(run.get(head[1]));
+            }
+            if (head[1] + 1 < run.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    private static Pageable top(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page too deep to merge across shards: " + pageable);
+        }
+        return PageRequest.of(0, (int) end, sort);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fanOut != null) {
+            fanOut.shutdownNow();
+        }
+    }
+}
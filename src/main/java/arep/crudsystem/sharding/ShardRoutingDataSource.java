@@ -0,0 +1,70 @@
+package arep.crudsystem.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource that hands out connections to the shard selected for the current thread,
+ * or to shard 0 when none is selected. Shard 0 is the primary database, which also holds
+ * every table that is not sharded (e.g. users).
+ * As with read replica routing, the shard is resolved when the connection is requested, so this
+ * DataSource sits behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * and a transaction runs on the shard selected when its first statement is executed.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+
+    /**
+     * @param shards The shard DataSources, indexed by shard number.
+     */
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    /**
+     * Selects the shard of the current thread.
+     *
+     * @param shard The shard, or {@code null} for the default shard 0.
+     * @return The shard selected before, to be restored afterwards.
+     */
+    static Integer selectShard(Integer shard) {
+        Integer previous = currentShard.get();
+        if (shard != null) {
+            currentShard.set(shard);
+        } else {
+            currentShard.remove();
+        }
+        return previous;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = currentShard.get();
+        return shard != null ? shard : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
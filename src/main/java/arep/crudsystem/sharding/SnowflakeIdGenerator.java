@@ -0,0 +1,88 @@
+package arep.crudsystem.sharding;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates unique, roughly time-ordered 53-bit IDs without asking the database.
+ * An ID is made of the milliseconds since 2025-01-01 (41 bits, enough until 2094), the worker ID
+ * of the instance (5 bits) and a per-millisecond sequence (7 bits), in the style of Twitter's Snowflake.
+ * 53 bits keep the IDs exact as JavaScript numbers. Instances must run with distinct worker IDs.
+ * When the sequence of a millisecond runs out, or the clock goes backwards, the generator carries
+ * on with the following millisecond instead of waiting, so IDs never repeat.
+ */
+public final class SnowflakeIdGenerator {
+
+    /**
+     * The highest worker ID.
+     */
+    public static final int MAX_WORKER_ID = 31;
+
+    static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    static final int SEQUENCE_BITS = 7;
+
+    static final int WORKER_BITS = 5;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final Map<Integer, SnowflakeIdGenerator> generators = new ConcurrentHashMap<>();
+
+    private final long workerId;
+
+    private final LongSupplier clock;
+
+    private long lastMillis = -1;
+
+    private long sequence;
+
+    SnowflakeIdGenerator(int workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker ID must be between 0 and " + MAX_WORKER_ID);
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the generator of the given worker, shared within the JVM so that every caller draws from one sequence.
+     *
+     * @param workerId The worker ID of this instance.
+     * @return The generator.
+     */
+    public static SnowflakeIdGenerator forWorker(int workerId) {
+        return generators.computeIfAbsent(workerId, id -> new SnowflakeIdGenerator(id, System::currentTimeMillis));
+    }
+
+    /**
+     * Returns the lowest ID that can be generated at the given time, by any worker.
+     * IDs generated earlier are lower, so this bounds ID ranges by time.
+     *
+     * @param epochMillis The time in milliseconds since 1970-01-01.
+     * @return The lowest ID of that millisecond.
+     */
+    public static long firstIdAt(long epochMillis) {
+        return (epochMillis - EPOCH) << (WORKER_BITS + SEQUENCE_BITS);
+    }
+
+    /**
+     * Returns a new ID.
+     *
+     * @return An ID greater than every ID returned before by this generator.
+     */
+    public synchronized long nextId() {
+        long millis = Math.max(clock.getAsLong(), lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                millis++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+        return ((millis - EPOCH) << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+}
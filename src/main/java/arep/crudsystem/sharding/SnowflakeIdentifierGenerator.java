@@ -0,0 +1,56 @@
+package arep.crudsystem.sharding;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate generator behind {@link SnowflakeId}.
+ * IDs are assigned in memory, so inserts can still be sent in JDBC batches.
+ * An ID set on the entity before it is persisted is kept, so callers can pick the shard up front.
+ * Hibernate may create it through the Spring bean container, hence the no-argument constructor.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator, AnnotationBasedGenerator<SnowflakeId> {
+
+    /**
+     * Hibernate setting with the worker ID of this instance.
+     */
+    public static final String WORKER_ID_SETTING = "property.id.worker-id";
+
+    private transient SnowflakeIdGenerator ids;
+
+    @Override
+    public void initialize(SnowflakeId annotation, Member member, GeneratorCreationContext context) {
+        int workerId = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(WORKER_ID_SETTING, StandardConverters.INTEGER, 0);
+        this.ids = SnowflakeIdGenerator.forWorker(workerId);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        // Hibernate does not pass the ID of a persisted entity in currentValue, so an assigned one is read from it
+        Object assigned = currentValue != null
+                ? currentValue
+                : session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assigned != null ? assigned : ids.nextId();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
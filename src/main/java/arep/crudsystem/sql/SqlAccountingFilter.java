@@ -0,0 +1,68 @@
+package arep.crudsystem.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that accounts the SQL statements of each request and logs requests over budget:
+ * too many statements, too much SQL time, or the same statement repeated like an N+1 pattern.
+ */
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlAccountingFilter.class);
+
+    private final int maxStatements;
+    private final long slowRequestNanos;
+    private final int nPlusOneThreshold;
+    private final int maxRecorded;
+
+    /**
+     * @param maxStatements     Requests issuing more statements than this are logged.
+     * @param slowRequestMillis Requests spending at least this long in SQL are logged.
+     * @param nPlusOneThreshold Requests repeating one statement at least this many times are logged as N+1.
+     * @param maxRecorded       The maximum number of statements listed in a log entry.
+     */
+    public SqlAccountingFilter(int maxStatements, long slowRequestMillis, int nPlusOneThreshold, int maxRecorded) {
+        this.maxStatements = maxStatements;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMillis);
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.maxRecorded = maxRecorded;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStatistics statistics = SqlRequestContext.begin(maxRecorded);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestContext.clear();
+            report(request, statistics);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlRequestStatistics statistics) {
+        String target = request.getMethod() + " " + request.getRequestURI();
+        if (statistics.getMaxRepeats() >= nPlusOneThreshold) {
+            log.warn("Possible N+1 in {}: statement executed {} times: {}",
+                    target, statistics.getMaxRepeats(), statistics.getMostRepeated());
+        }
+        if (statistics.getCount() > maxStatements || statistics.getTotalNanos() >= slowRequestNanos) {
+            StringBuilder message = new StringBuilder();
+            for (SqlRequestStatistics.Statement statement : statistics.getStatements()) {
+                message.append(System.lineSeparator()).append("  ")
+                        .append(TimeUnit.NANOSECONDS.toMillis(statement.nanos())).append(" ms: ").append(statement.sql());
+            }
+            log.warn("{} issued {} SQL statements taking {} ms:{}", target, statistics.getCount(),
+                    TimeUnit.NANOSECONDS.toMillis(statistics.getTotalNanos()), message);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package arep.crudsystem.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC listener that attributes every executed statement to the current request and logs slow statements.
+ * A JDBC batch counts as one statement, since it is one round trip.
+ */
+public class SqlAccountingListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlAccountingListener.class);
+
+    private final long slowQueryNanos;
+
+    public SqlAccountingListener(long slowQueryMillis) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        if (execInfo.isBatch()) {
+            sql = sql + " [batch of " + execInfo.getBatchSize() + "]";
+        }
+        SqlRequestStatistics statistics = SqlRequestContext.current();
+        if (statistics != null) {
+            statistics.record(sql, nanos);
+        }
+        if (nanos >= slowQueryNanos) {
+            log.warn("Slow SQL ({} ms): {}", execInfo.getElapsedTime(), sql);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package arep.crudsystem.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debug mode: adds the SQL accounting of the request as response headers, right before the body is written.
+ * Enabled with {@code sql.accounting.debug-headers=true}; meant for tests and local profiling.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "sql.accounting.debug-headers", havingValue = "true")
+public class SqlAccountingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+    public static final String MAX_REPEATS_HEADER = "X-Sql-Max-Repeats";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlRequestStatistics statistics = SqlRequestContext.current();
+        if (statistics != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, Integer.toString(statistics.getCount()));
+            response.getHeaders().set(TIME_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMillis(statistics.getTotalNanos())));
+            response.getHeaders().set(MAX_REPEATS_HEADER, Integer.toString(statistics.getMaxRepeats()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,56 @@
+package arep.crudsystem.sql;
+
+/**
+ * Holds the {@link SqlRequestStatistics} of the request being handled by the current thread.
+ * Statements executed on other threads (e.g. streamed responses) are not attributed to the request,
+ * unless the work handed to them carries the statistics over with {@link #set}, as the shard fan-out does.
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private SqlRequestContext() {
+    }
+
+    /**
+     * Starts accounting for the current thread.
+     *
+     * @param maxRecorded The maximum number of statement texts to keep.
+     * @return The new statistics.
+     */
+    public static SqlRequestStatistics begin(int maxRecorded) {
+        SqlRequestStatistics statistics = new SqlRequestStatistics(maxRecorded);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of the current thread.
+     *
+     * @return The statistics, or {@code null} outside an accounted request.
+     */
+    public static SqlRequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Attributes the statements of the current thread to the given statistics, e.g. those of the request
+     * that handed it work. Statistics are thread-safe, so several threads may record into the same one.
+     *
+     * @param statistics The statistics, or {@code null} to stop accounting.
+     */
+    public static void set(SqlRequestStatistics statistics) {
+        if (statistics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statistics);
+        }
+    }
+
+    /**
+     * Stops accounting for the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
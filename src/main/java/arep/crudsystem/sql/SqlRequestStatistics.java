@@ -0,0 +1,81 @@
+package arep.crudsystem.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements executed while handling one HTTP request.
+ * Counts and total time cover every statement; the statement texts kept for logging are bounded.
+ */
+public class SqlRequestStatistics {
+
+    /**
+     * One executed statement.
+     *
+     * @param sql   The SQL text, with parameters as placeholders.
+     * @param nanos The execution time in nanoseconds.
+     */
+    public record Statement(String sql, long nanos) {
+    }
+
+    private final int maxRecorded;
+    private final List<Statement> statements = new ArrayList<>();
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int count;
+    private long totalNanos;
+    private int maxRepeats;
+    private String mostRepeated;
+
+    public SqlRequestStatistics(int maxRecorded) {
+        this.maxRecorded = maxRecorded;
+    }
+
+    /**
+     * Records an executed statement.
+     *
+     * @param sql   The SQL text.
+     * @param nanos The execution time in nanoseconds.
+     */
+    public synchronized void record(String sql, long nanos) {
+        count++;
+        totalNanos += nanos;
+        if (statements.size() < maxRecorded) {
+            statements.add(new Statement(sql, nanos));
+        }
+        // The text comes from the PreparedStatement, so repeats of the same statement are the same string
+        int repeats = executions.merge(sql, 1, Integer::sum);
+        if (repeats > maxRepeats) {
+            maxRepeats = repeats;
+            mostRepeated = sql;
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns how many times the most repeated statement was executed; a high value with
+     * a single distinct statement usually means an N+1 query pattern.
+     *
+     * @return The highest execution count of a single statement.
+     */
+    public synchronized int getMaxRepeats() {
+        return maxRepeats;
+    }
+
+    public synchronized String getMostRepeated() {
+        return mostRepeated;
+    }
+
+    public synchronized List<Statement> getStatements() {
+        return Collections.unmodifiableList(new ArrayList<>(statements));
+    }
+}
@@ -37,27 +37,47 @@ function showMessage(message, isError = false) {
     }, 3000);
 }
 
+// Función para hacer peticiones con el token de sesión guardado en el login
+function authFetch(url, options = {}) {
+    const token = sessionStorage.getItem("authToken");
+    const headers = { ...(options.headers || {}) };
+    if (token) {
+        headers["Authorization"] = `Bearer ${token}`;
+    }
+    return fetch(url, { ...options, headers });
+}
+
+// Función para agregar una fila a la tabla
+function addRow(property) {
+    const row = propertyTable.insertRow();
+    row.dataset.id = property.id;
+    fillRow(row, property);
+}
+
+// Función para escribir los datos de una propiedad en su fila
+function fillRow(row, property) {
+    row.innerHTML = `
+        <td>${property.id}</td>
+        <td>${property.address}</td>
+        <td>${property.price}</td>
+        <td>${property.size}</td>
+        <td>${property.description}</td>
+        <td class="actions">
+            <button class="editar" onclick="editProperty(${property.id})">Editar</button>
+            <button class="eliminar" onclick="deleteProperty(${property.id})">Eliminar</button>
+        </td>
+    `;
+}
+
 // Función para cargar propiedades con paginación
 async function loadProperties(page = currentPage) {
     try {
-        const response = await fetch(`${API_URL}?page=${page}&size=${pageSize}`);
+        // El total aproximado basta para el paginador y evita un COUNT por cada página
+        const response = await authFetch(`${API_URL}?page=${page}&size=${pageSize}&withTotal=approximate`);
         if (!response.ok) throw new Error("Error al cargar propiedades");
         const properties = await response.json();
         propertyTable.innerHTML = ""; // Limpiar tabla
-        properties.content.forEach(property => {
-            const row = propertyTable.insertRow();
-            row.innerHTML = `
-                <td>${property.id}</td>
-                <td>${property.address}</td>
-                <td>${property.price}</td>
-                <td>${property.size}</td>
-                <td>${property.description}</td>
-                <td class="actions">
-                    <button class="editar" onclick="editProperty(${property.id})">Editar</button>
-                    <button class="eliminar" onclick="deleteProperty(${property.id})">Eliminar</button>
-                </td>
-            `;
-        });
+        properties.content.forEach(addRow);
 
         // Agregar controles de paginación
         const paginationDiv = document.getElementById("pagination");
@@ -102,7 +122,7 @@ async function searchProperties() {
     if (maxSize) url += `&maxSize=${parseFloat(maxSize)}`;
 
     try {
-        const response = await fetch(url);
+        const response = await authFetch(url);
         if (!response.ok) throw new Error("Error al buscar propiedades");
         const properties = await response.json();
 
@@ -113,20 +133,7 @@ async function searchProperties() {
         }
 
         propertyTable.innerHTML = ""; // Limpiar tabla
-        properties.content.forEach(property => {
-            const row = propertyTable.insertRow();
-            row.innerHTML = `
-                <td>${property.id}</td>
-                <td>${property.address}</td>
-                <td>${property.price}</td>
-                <td>${property.size}</td>
-                <td>${property.description}</td>
-                <td class="actions">
-                    <button class="editar" onclick="editProperty(${property.id})">Editar</button>
-                    <button class="eliminar" onclick="deleteProperty(${property.id})">Eliminar</button>
-                </td>
-            `;
-        });
+        properties.content.forEach(addRow);
 
         // Actualizar controles de paginación
         updatePagination(properties.totalPages);
@@ -170,22 +177,28 @@ propertyForm.addEventListener("submit", async (e) => {
             size: parseFloat(document.getElementById("size").value),
             description: document.getElementById("description").value
         };
+        // Enviar la versión leída para detectar ediciones concurrentes
+        const version = document.getElementById("propertyVersion").value;
+        if (id && version) property.version = parseInt(version);
 
         const url = id ? `${API_URL}/${id}` : API_URL;
         const method = id ? "PUT" : "POST";
 
-        const response = await fetch(url, {
+        const response = await authFetch(url, {
             method: method,
             headers: { "Content-Type": "application/json" },
             body: JSON.stringify(property)
         });
 
+        if (response.status === 409) throw new Error("La propiedad fue modificada por otro usuario. Vuelve a cargarla.");
         if (!response.ok) throw new Error(id ? "Error al actualizar la propiedad" : "Error al crear la propiedad");
 
         showMessage(id ? "Propiedad actualizada correctamente" : "Propiedad creada correctamente");
         propertyForm.reset();
         document.getElementById("propertyId").value = "";
-        loadProperties(currentPage);
+        document.getElementById("propertyVersion").value = "";
+        // Con el canal de cambios abierto la tabla se actualiza sola
+        if (!eventsConnected) loadProperties(currentPage);
     } catch (error) {
         showMessage(error.message, true);
     }
@@ -194,10 +207,11 @@ propertyForm.addEventListener("submit", async (e) => {
 // Función para editar una propiedad
 async function editProperty(id) {
     try {
-        const response = await fetch(`${API_URL}/${id}`);
+        const response = await authFetch(`${API_URL}/${id}`);
         if (!response.ok) throw new Error("Error al cargar la propiedad");
         const property = await response.json();
         document.getElementById("propertyId").value = property.id;
+        document.getElementById("propertyVersion").value = property.version ?? "";
         document.getElementById("address").value = property.address;
         document.getElementById("price").value = property.price;
         document.getElementById("size").value = property.size;
@@ -210,14 +224,72 @@ async function editProperty(id) {
 // Función para eliminar una propiedad
 async function deleteProperty(id) {
     try {
-        const response = await fetch(`${API_URL}/${id}`, { method: "DELETE" });
+        const response = await authFetch(`${API_URL}/${id}`, { method: "DELETE" });
         if (!response.ok) throw new Error("Error al eliminar la propiedad");
         showMessage("Propiedad eliminada correctamente");
-        loadProperties(currentPage);
+        if (!eventsConnected) loadProperties(currentPage);
     } catch (error) {
         showMessage(error.message, true);
     }
 }
 
+// Cambios en vivo: el servidor envía cada creación, actualización o eliminación
+// en lugar de que cada pestaña vuelva a pedir la lista
+let eventsConnected = false;
+
+function hasFilters() {
+    return searchQueryInput.value.trim() !== "" || maxPriceInput.value.trim() !== "" || maxSizeInput.value.trim() !== "";
+}
+
+// Función para volver a cargar lo que muestra la tabla
+function reloadCurrentView() {
+    if (hasFilters()) {
+        searchProperties();
+    } else {
+        loadProperties(currentPage);
+    }
+}
+
+function findRow(id) {
+    return propertyTable.querySelector(`tr[data-id="${id}"]`);
+}
+
+function subscribeToChanges() {
+    if (!window.EventSource) return;
+    const events = new EventSource(`${API_URL}/events`);
+    let opened = false;
+
+    events.onopen = () => {
+        // Tras una reconexión pudieron perderse cambios
+        if (opened) reloadCurrentView();
+        opened = true;
+        eventsConnected = true;
+    };
+    // El navegador reintenta la conexión por su cuenta
+    events.onerror = () => {
+        eventsConnected = false;
+    };
+
+    events.addEventListener("created", (e) => {
+        const change = JSON.parse(e.data);
+        // Sin filtros, las propiedades nuevas aparecen al final del listado
+        if (!hasFilters() && propertyTable.rows.length < pageSize && !findRow(change.id)) {
+            addRow(change.property);
+        }
+    });
+    events.addEventListener("updated", (e) => {
+        const change = JSON.parse(e.data);
+        const row = findRow(change.id);
+        if (row) fillRow(row, change.property);
+    });
+    events.addEventListener("deleted", (e) => {
+        const row = findRow(JSON.parse(e.data).id);
+        if (row) row.remove();
+    });
+    // El servidor descartó cambios para esta pestaña: recargar la página actual
+    events.addEventListener("resync", reloadCurrentView);
+}
+
 // Cargar propiedades al iniciar
-loadProperties();
\ No newline at end of file
+loadProperties();
+subscribeToChanges();
\ No newline at end of file
@@ -18,6 +18,7 @@ document.getElementById("login-form").addEventListener("submit", async function(
         // Verificar si la respuesta es exitosa
         if (response.ok) {
             const data = await response.json();
+            sessionStorage.setItem("authToken", data.token); // Guardar el token para las siguientes peticiones
             alert("Login exitoso: " + data.message); // Mostrar mensaje de éxito
             window.location.href = "/home.html"; // Redirigir al usuario
         } else {
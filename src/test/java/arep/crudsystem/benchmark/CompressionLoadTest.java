@@ -0,0 +1,102 @@
+package arep.crudsystem.benchmark;
+
+import arep.crudsystem.CrudsystemApplication;
+import arep.crudsystem.config.HttpTransportTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bandwidth and latency of search pages over the TLS connector with and without HTTP/2 and gzip.
+ * The full application is booted on a random HTTPS port with the bundled keystore, then concurrent
+ * clients request random search pages. Bytes are counted as received on the wire (the client does not
+ * decompress), and the transfer time of an average page is also estimated for a constrained link
+ * ({@code benchmark.link-mbps}), where the size difference matters more than on loopback.
+ * Disabled by default; run it with
+ * {@code mvn test -Dtest=CompressionLoadTest -Dbenchmark=true [-Dbenchmark.clients=32] [-Dbenchmark.seconds=15]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CompressionLoadTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 32);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 15);
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 50);
+    private static final double LINK_MBPS = Double.parseDouble(System.getProperty("benchmark.link-mbps", "10"));
+
+    @Test
+    void compareTransports() throws Exception {
+        System.out.println(run(false, HttpClient.Version.HTTP_1_1, "identity", "HTTP/1.1, uncompressed"));
+        System.out.println(run(true, HttpClient.Version.HTTP_1_1, "gzip", "HTTP/1.1, gzip"));
+        System.out.println(run(true, HttpClient.Version.HTTP_2, "gzip", "HTTP/2, gzip"));
+    }
+
+    private String run(boolean compression, HttpClient.Version version, String acceptEncoding, String mode) throws Exception {
+        // Command-line arguments take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CrudsystemApplication.class).run(
+                "--server.port=0",
+                "--server.compression.enabled=" + compression,
+                "--server.http2.enabled=" + (version == HttpClient.Version.HTTP_2),
+                "--property.search-cache.maximum-size=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            seed(context.getBean(JdbcTemplate.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpTransportTest.trustingClientBuilder()
+                    .version(version)
+                    .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            return drive(client, "https://localhost:" + port + "/api/properties/search", acceptEncoding, mode);
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        String[] descriptions = {
+                "Casa con jardín, tres habitaciones y garaje cubierto",
+                "Apartamento con terraza y vista a la ciudad, cerca al transporte público",
+                "Estudio amoblado en zona universitaria",
+                "Casa esquinera con patio, estudio y dos baños"};
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (long id = 1; id <= ROWS; id++) {
+            rows.add(new Object[]{id, "Calle " + id, 100_000.0 + id, 50.0 + id % 200,
+                    descriptions[(int) (id % descriptions.length)], 0L});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO properties (id, address, price, size, description, version) VALUES (?, ?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    private String drive(HttpClient client, String baseUrl, String acceptEncoding, String mode) throws Exception {
+        AtomicLong bytes = new AtomicLong();
+        LoadDriver.Result result = LoadDriver.run(CLIENTS, SECONDS, index -> random -> {
+            double maxPrice = 100_000.0 + PAGE_SIZE + random.nextInt(ROWS);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?maxPrice=" + maxPrice
+                            + "&page=0&size=" + PAGE_SIZE + "&withTotal=false"))
+                    .header("Accept-Encoding", acceptEncoding)
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            bytes.addAndGet(response.body().length);
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+        });
+        double bytesPerPage = bytes.get() / (double) Math.max(1, result.count());
+        return result.describe(mode, "requests", String.format(", %.0f body bytes/page (%.1f ms at %.0f Mbit/s)",
+                bytesPerPage, bytesPerPage * 8 / (LINK_MBPS * 1000), LINK_MBPS));
+    }
+}
@@ -0,0 +1,108 @@
+package arep.crudsystem.benchmark;
+
+import arep.crudsystem.CrudsystemApplication;
+import arep.crudsystem.repository.PropertyRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput of {@code PropertyRepository.search} with Hikari's defaults and with a production profile.
+ * The application is booted once per mode, the {@code properties} table is seeded, and concurrent callers
+ * run filtered searches (price, price and size, or text) for a fixed time after a short warm-up.
+ * By default both modes run on in-memory H2 and the tuned one uses the {@code prod-h2} profile; pass
+ * {@code -Dbenchmark.profile=prod-mysql} with {@code -Dbenchmark.url}, {@code -Dbenchmark.username} and
+ * {@code -Dbenchmark.password} to compare against MySQL, where the statement cache settings apply.
+ * Outside in-memory H2 the schema is only updated, never dropped; the seeded rows get negative IDs,
+ * which the application never assigns, and are deleted after each mode.
+ * Disabled by default; run it with
+ * {@code mvn test -Dtest=ConnectionPoolLoadTest -Dbenchmark=true [-Dbenchmark.threads=32] [-Dbenchmark.seconds=15]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ConnectionPoolLoadTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 15);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup-seconds", 3);
+    private static final String PROFILE = System.getProperty("benchmark.profile", "prod-h2");
+    private static final String URL = System.getProperty("benchmark.url");
+
+    @Test
+    void compareProfiles() throws Exception {
+        System.out.println(run(null, "jdbc:h2:mem:pool-defaults", "Hikari defaults"));
+        System.out.println(run(PROFILE, null, "Profile " + PROFILE));
+    }
+
+    private String run(String profile, String defaultUrl, String mode) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--server.ssl.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.hibernate.ddl-auto=" + (URL == null ? "create-drop" : "update"),
+                "--logging.level.root=WARN",
+                "--H2_DATABASE=mem:pool-" + profile));
+        // Command-line arguments take precedence over application.properties and the profile
+        if (URL != null) {
+            args.add("--spring.datasource.url=" + URL);
+            args.add("--spring.datasource.username=" + System.getProperty("benchmark.username", ""));
+            args.add("--spring.datasource.password=" + System.getProperty("benchmark.password", ""));
+        } else if (defaultUrl != null) {
+            args.add("--spring.datasource.url=" + defaultUrl);
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CrudsystemApplication.class);
+        if (profile != null) {
+            builder.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = builder.run(args.toArray(String[]::new))) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed(jdbcTemplate);
+            try {
+                PropertyRepository propertyRepository = context.getBean(PropertyRepository.class);
+                drive(propertyRepository, WARMUP_SECONDS);
+                LoadDriver.Result result = drive(propertyRepository, SECONDS);
+                HikariDataSource pool = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+                return result.describe(mode + " (pool of " + pool.getMaximumPoolSize() + ")", "searches", "");
+            } finally {
+                jdbcTemplate.update("DELETE FROM properties WHERE id < 0");
+            }
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        String[] descriptions = {
+                "Casa con jardín, tres habitaciones y garaje cubierto",
+                "Apartamento con terraza y vista a la ciudad, cerca al transporte público",
+                "Estudio amoblado en zona universitaria",
+                "Casa esquinera con patio, estudio y dos baños"};
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (long id = 1; id <= ROWS; id++) {
+            rows.add(new Object[]{-id, "Calle " + id, 100_000.0 + id, 50.0 + id % 200,
+                    descriptions[(int) (id % descriptions.length)], 0L});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO properties (id, address, price, size, description, version) VALUES (?, ?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    private LoadDriver.Result drive(PropertyRepository propertyRepository, int seconds) throws Exception {
+        return LoadDriver.run(THREADS, seconds, index -> random -> {
+            double maxPrice = 100_000.0 + random.nextInt(ROWS);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> propertyRepository.search(null, maxPrice, null, PageRequest.of(0, 20));
+                case 2 -> propertyRepository.search(null, maxPrice, 50.0 + random.nextInt(200),
+                        PageRequest.of(0, 20));
+                default -> propertyRepository.search("jardín", null, null,
+                        PageRequest.of(random.nextInt(10), 20));
+            }
+        });
+    }
+}
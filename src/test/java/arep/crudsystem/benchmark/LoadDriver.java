@@ -0,0 +1,123 @@
+package arep.crudsystem.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared harness of the load tests: concurrent callers repeat a call until a deadline, the latency of every call
+ * is sampled and the samples of all callers are merged into one sorted array for the percentiles.
+ * A call that throws counts as an error; its latency is sampled too.
+ */
+final class LoadDriver {
+
+    /**
+     * One operation of the load, e.g. one HTTP request.
+     */
+    @FunctionalInterface
+    interface Call {
+        void run(ThreadLocalRandom random) throws Exception;
+    }
+
+    /**
+     * Creates the call of one caller, on the caller's own thread, so that it may hold per-caller state.
+     */
+    @FunctionalInterface
+    interface Caller {
+        Call create(int index) throws Exception;
+    }
+
+    private LoadDriver() {
+    }
+
+    /**
+     * Runs the callers for the given time and waits for them.
+     *
+     * @param callers The number of concurrent callers.
+     * @param seconds How long the callers run.
+     * @param caller  Creates the call of each caller.
+     * @return The latencies and errors of every call.
+     */
+    static Result run(int callers, int seconds, Caller caller) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[][] latencies = new long[callers][];
+        AtomicLong errors = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        for (int c = 0; c < callers; c++) {
+            int index = c;
+            executor.execute(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    Call call = caller.create(index);
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            call.run(random);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+                latencies[index] = Arrays.copyOf(samples, count);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, seconds, errors.get());
+    }
+
+    /**
+     * The outcome of a run.
+     *
+     * @param sortedLatencies The latency of every call in nanoseconds, ascending.
+     * @param seconds         How long the callers ran.
+     * @param errors          The number of failed calls.
+     */
+    record Result(long[] sortedLatencies, int seconds, long errors) {
+
+        int count() {
+            return sortedLatencies.length;
+        }
+
+        /**
+         * Returns a latency percentile.
+         *
+         * @param percentile The percentile, between 0 and 1.
+         * @return The latency in milliseconds.
+         */
+        double percentileMillis(double percentile) {
+            int n = sortedLatencies.length;
+            return sortedLatencies[Math.min(n - 1, (int) (n * percentile))] / 1e6;
+        }
+
+        /**
+         * Describes the run on one line.
+         *
+         * @param mode       What was measured.
+         * @param operations The name of the calls, in plural, e.g. "requests".
+         * @param details    Further measurements, appended after the percentiles, or an empty string.
+         * @return The description.
+         */
+        String describe(String mode, String operations, String details) {
+            int n = sortedLatencies.length;
+            if (n == 0) {
+                return mode + ": no " + operations + " completed";
+            }
+            return String.format("%s: %d %s, %.0f %s/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms%s, %d errors",
+                    mode, n, operations, n / (double) seconds, operations, percentileMillis(0.5),
+                    percentileMillis(0.99), sortedLatencies[n - 1] / 1e6, details, errors);
+        }
+    }
+}
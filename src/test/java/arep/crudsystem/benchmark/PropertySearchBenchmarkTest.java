@@ -0,0 +1,131 @@
+package arep.crudsystem.benchmark;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Latency benchmark for filtered property searches.
+ * It compares the dynamic Specification query against the former catch-all JPQL query
+ * on a seeded {@code properties} table. Disabled by default; run it with
+ * {@code mvn test -Dtest=PropertySearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=1000000]}.
+ * By default it runs on an in-memory H2 database; pass {@code -Dbenchmark.url}, {@code -Dbenchmark.username}
+ * and {@code -Dbenchmark.password} to run it against MySQL instead. Outside in-memory H2 the schema is only
+ * updated, never dropped; the seeded rows get negative IDs, which the application never assigns,
+ * and are deleted afterwards.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PropertySearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+    private static final String URL = System.getProperty("benchmark.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+
+    private static final String CATCH_ALL_QUERY = "SELECT p FROM Property p WHERE " +
+            "(:query IS NULL OR p.address LIKE CONCAT('%', :query, '%') OR p.description LIKE CONCAT('%', :query, '%')) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:maxSize IS NULL OR p.size <= :maxSize)";
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> System.getProperty("benchmark.username", "sa"));
+        registry.add("spring.datasource.password", () -> System.getProperty("benchmark.password", ""));
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> URL.startsWith("jdbc:h2:mem:") ? "create" : "update");
+    }
+
+    @BeforeAll
+    public void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{-(i + 1L), "Calle " + i, 50_000 + random.nextInt(950_000) * 1.0,
+                    20 + random.nextInt(480) * 1.0, "Casa " + (i % 100)});
+            if (batch.size() == 10_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO properties (id, address, price, size, description) VALUES (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @AfterAll
+    public void deleteSeededRows() {
+        new JdbcTemplate(dataSource).update("DELETE FROM properties WHERE id < 0");
+    }
+
+    @Test
+    public void benchmarkFilteredSearch() {
+        System.out.printf("Filtered search over %,d rows (%d iterations, avg ms per page)%n", ROWS, ITERATIONS);
+        System.out.printf("%-24s %14s %14s%n", "filters", "specification", "catch-all");
+        report("maxPrice", null, 60_000.0, null);
+        report("maxSize", null, null, 25.0);
+        report("maxPrice + maxSize", null, 100_000.0, 50.0);
+        report("query + maxPrice", "Calle 99", 100_000.0, null);
+    }
+
+    private void report(String label, String query, Double maxPrice, Double maxSize) {
+        double specification = averageMillis(() ->
+                propertyRepository.search(query, maxPrice, maxSize, PageRequest.of(0, 5)).getContent());
+        double catchAll = averageMillis(() -> {
+            TypedQuery<Property> typedQuery = entityManager.createQuery(CATCH_ALL_QUERY, Property.class)
+                    .setParameter("query", query)
+                    .setParameter("maxPrice", maxPrice)
+                    .setParameter("maxSize", maxSize)
+                    .setMaxResults(5);
+            entityManager.createQuery(CATCH_ALL_QUERY.replace("SELECT p FROM", "SELECT COUNT(p) FROM"), Long.class)
+                    .setParameter("query", query)
+                    .setParameter("maxPrice", maxPrice)
+                    .setParameter("maxSize", maxSize)
+                    .getSingleResult();
+            return typedQuery.getResultList();
+        });
+        System.out.printf("%-24s %14.3f %14.3f%n", label, specification, catchAll);
+    }
+
+    private static double averageMillis(Supplier<List<Property>> search) {
+        for (int i = 0; i < 5; i++) {
+            search.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,126 @@
+package arep.crudsystem.benchmark;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.search.PropertySearchCache;
+import arep.crudsystem.search.PropertySearchEngine;
+import arep.crudsystem.service.PropertyService;
+import arep.crudsystem.sharding.PropertyShards;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Throughput comparison of the property update paths.
+ * "load + save" is the former findById/copy/save flow; "single update" is the current
+ * {@link PropertyService#updateProperty(Long, Property)} with a version check.
+ * Disabled by default; run it with
+ * {@code mvn test -Dtest=PropertyUpdateLoadTest -Dbenchmark=true [-Dbenchmark.threads=8] [-Dbenchmark.seconds=10]}.
+ */
+@DataJpaTest(showSql = false)
+@Import({PropertyService.class, PropertyShards.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PropertyUpdateLoadTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private PropertySearchEngine searchEngine;
+
+    @MockitoBean
+    private PropertySearchCache searchCache;
+
+    @BeforeAll
+    public void seed() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            rows.add(new Object[]{(long) i, "Calle " + i, 100_000.0, 100.0, "Casa", 0L});
+        }
+        new JdbcTemplate(dataSource).batchUpdate(
+                "INSERT INTO properties (id, address, price, size, description, version) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    public void compareUpdatePaths() throws Exception {
+        double legacy = throughput(id -> transactionTemplate.executeWithoutResult(status -> {
+            Property property = propertyRepository.findById(id).orElseThrow();
+            property.setPrice(ThreadLocalRandom.current().nextDouble(100_000));
+            propertyRepository.save(property);
+        }));
+        // Like a real client, remember the version returned by the last update of each property
+        Map<Long, Long> versions = new ConcurrentHashMap<>();
+        propertyRepository.findAll().forEach(property -> versions.put(property.getId(), property.getVersion()));
+        AtomicLong conflicts = new AtomicLong();
+        double single = throughput(id -> {
+            Property details = new Property();
+            details.setAddress("Calle " + id);
+            details.setPrice(ThreadLocalRandom.current().nextDouble(100_000));
+            details.setSize(100.0);
+            details.setVersion(versions.get(id));
+            try {
+                versions.put(id, propertyService.updateProperty(id, details).getVersion());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+                versions.put(id, propertyRepository.findById(id).orElseThrow().getVersion());
+            }
+        });
+        System.out.printf("Property updates, %d threads, %d s each (ops/s)%n", THREADS, SECONDS);
+        System.out.printf("%-16s %12.0f%n", "load + save", legacy);
+        System.out.printf("%-16s %12.0f (%d conflicts)%n", "single update", single, conflicts.get());
+    }
+
+    private static double throughput(LongConsumer update) throws InterruptedException {
+        AtomicLong operations = new AtomicLong();
+        long deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    update.accept(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+                    operations.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(SECONDS + 30L, TimeUnit.SECONDS);
+        return operations.get() / (double) SECONDS;
+    }
+}
@@ -0,0 +1,82 @@
+package arep.crudsystem.benchmark;
+
+import arep.crudsystem.CrudsystemApplication;
+import arep.crudsystem.config.HttpTransportTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * New TLS connections per second against the HTTPS connector, with full and resumed handshakes.
+ * The full application is booted on a random HTTPS port with the bundled keystore, then concurrent
+ * clients open a connection, send one {@code HEAD /index.html} with {@code Connection: close} and read
+ * until the server closes it, which also delivers the TLS 1.3 session tickets. In the full mode each
+ * client drops its session after use, as a client without a session cache would; in the resumed mode
+ * the sessions are kept, so later connections skip the certificate signature and key exchange.
+ * Disabled by default; run it with
+ * {@code mvn test -Dtest=TlsHandshakeLoadTest -Dbenchmark=true [-Dbenchmark.clients=16] [-Dbenchmark.seconds=10]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TlsHandshakeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 16);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+
+    private static final byte[] REQUEST = ("HEAD /index.html HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void compareHandshakes() throws Exception {
+        // Command-line arguments take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CrudsystemApplication.class).run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            for (String protocol : new String[]{"TLSv1.3", "TLSv1.2"}) {
+                System.out.println(drive(port, protocol, false, protocol + ", full handshakes"));
+                System.out.println(drive(port, protocol, true, protocol + ", resumed sessions"));
+            }
+        }
+    }
+
+    private String drive(int port, String protocol, boolean resume, String mode) throws Exception {
+        AtomicLong resumed = new AtomicLong();
+        LoadDriver.Result result = LoadDriver.run(CLIENTS, SECONDS, index -> {
+            SSLContext sslContext = HttpTransportTest.trustingSslContext();
+            byte[][] previousSession = new byte[1][];
+            return random -> {
+                try (SSLSocket socket = (SSLSocket) sslContext.getSocketFactory().createSocket("localhost", port)) {
+                    socket.setEnabledProtocols(new String[]{protocol});
+                    OutputStream out = socket.getOutputStream();
+                    out.write(REQUEST);
+                    out.flush();
+                    InputStream in = socket.getInputStream();
+                    while (in.read() >= 0) {
+                        // Drain the response and any session tickets until the server closes
+                    }
+                    byte[] sessionId = socket.getSession().getId();
+                    if (previousSession[0] != null && Arrays.equals(previousSession[0], sessionId)) {
+                        resumed.incrementAndGet();
+                    }
+                    previousSession[0] = sessionId;
+                    if (!resume) {
+                        socket.getSession().invalidate();
+                    }
+                }
+            };
+        });
+        return result.describe(mode, "handshakes",
+                String.format(", %d reused a session id (TLS 1.2 only)", resumed.get()));
+    }
+}
@@ -0,0 +1,163 @@
+package arep.crudsystem.benchmark;
+
+import arep.crudsystem.CrudsystemApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load-test comparison of the default platform-thread Tomcat pool and the "virtual-threads" profile.
+ * Each mode boots the full application on a random plain-HTTP port and is driven by many concurrent
+ * clients mixing paged reads and updates. Updates are authenticated with a token from {@code /auth/login}
+ * and carry the property's version, read with a GET on a property's first update and then taken from each
+ * update's response; every client updates its own properties, so updates never conflict and every request
+ * must succeed.
+ * The virtual-thread mode is skipped on JVMs older than 21.
+ * Disabled by default; run it with
+ * {@code mvn -Pjava21 test -Dtest=VirtualThreadLoadTest -Dbenchmark=true [-Dbenchmark.clients=400] [-Dbenchmark.seconds=20]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadLoadTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 200);
+    // Deeper offset pages are rejected (property.pagination.max-offset)
+    private static final int MAX_OFFSET = 10_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        LoadDriver.Result platform = run(false);
+        System.out.println(platform.describe("platform threads", "requests", ""));
+        assertEquals(0, platform.errors(), "Failed requests with platform threads");
+        if (Runtime.version().feature() >= 21) {
+            LoadDriver.Result virtual = run(true);
+            System.out.println(virtual.describe("virtual threads", "requests", ""));
+            assertEquals(0, virtual.errors(), "Failed requests with virtual threads");
+        } else {
+            System.out.println("virtual threads: skipped, needs Java 21 (running " + Runtime.version() + ")");
+        }
+    }
+
+    private LoadDriver.Result run(boolean virtualThreads) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CrudsystemApplication.class);
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+        // Command-line arguments take precedence over application.properties
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--server.ssl.enabled=false",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.accept-count=" + CLIENTS,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            seed(context.getBean(JdbcTemplate.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            return drive("http://localhost:" + port);
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (long id = 1; id <= ROWS; id++) {
+            rows.add(new Object[]{id, "Calle " + id, 100_000.0 + id, 50.0 + id % 200, "Propiedad " + id, 0L});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO properties (id, address, price, size, description, version) VALUES (?, ?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    private LoadDriver.Result drive(String serverUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(client, serverUrl);
+        String baseUrl = serverUrl + "/api/properties";
+        return LoadDriver.run(CLIENTS, SECONDS, clientIndex -> {
+            // The versions of this client's properties: the IDs equal to its index modulo the number of clients
+            Map<Long, Long> versions = new HashMap<>();
+            return random -> {
+                long id = 1 + clientIndex + (long) CLIENTS * random.nextInt(Math.max(1, ROWS / CLIENTS));
+                if (random.nextInt(10) >= 8 && id <= ROWS) {
+                    try {
+                        Long version = versions.get(id);
+                        if (version == null) {
+                            version = version(client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                                    .GET().build(), HttpResponse.BodyHandlers.ofString()));
+                        }
+                        HttpResponse<String> response = client.send(update(baseUrl, token, id, version),
+                                HttpResponse.BodyHandlers.ofString());
+                        versions.put(id, version(response));
+                    } catch (Exception e) {
+                        versions.remove(id);
+                        throw e;
+                    }
+                } else {
+                    HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(
+                            baseUrl + "?page=" + random.nextInt(Math.min(ROWS, MAX_OFFSET) / 20) + "&size=20")).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400) {
+                        throw new IllegalStateException("Request failed with status " + response.statusCode());
+                    }
+                }
+            };
+        });
+    }
+
+    /**
+     * Registers a user and logs in once; the token is valid for longer than the run.
+     */
+    private String login(HttpClient client, String serverUrl) throws Exception {
+        String credentials = "?username=loadtest&password=" + System.nanoTime();
+        client.send(HttpRequest.newBuilder(URI.create(serverUrl + "/auth/register" + credentials))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(serverUrl + "/auth/login" + credentials))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    /**
+     * Reads the version of the property in a successful response.
+     */
+    private long version(HttpResponse<String> response) throws Exception {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Request failed with status " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("version").asLong();
+    }
+
+    private HttpRequest update(String baseUrl, String token, long id, long version) {
+        String body = "{\"address\":\"Calle " + id + "\",\"price\":" + (100_000.0 + id)
+                + ",\"size\":" + (50.0 + id % 200) + ",\"description\":\"Actualizada\",\"version\":" + version + "}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
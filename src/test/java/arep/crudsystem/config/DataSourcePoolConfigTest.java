@@ -0,0 +1,48 @@
+package arep.crudsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSourcePoolConfigTest {
+
+    @Test
+    public void testPoolSizeFollowsCoreCount() {
+        assertEquals(9, DataSourcePoolConfig.poolSize(4, 2, 1));
+        assertEquals(17, DataSourcePoolConfig.poolSize(8, 2, 1));
+        assertEquals(2, DataSourcePoolConfig.poolSize(0, 2, 1));
+    }
+
+    @Test
+    public void testPoolIsSizedFromConfiguredCores() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("datasource.pool.cores", "4")
+                .withProperty("datasource.pool.spindles", "2");
+        BeanPostProcessor postProcessor = DataSourcePoolConfig.hikariPoolSizePostProcessor(environment);
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+            assertEquals(10, dataSource.getMaximumPoolSize());
+            assertEquals(10, dataSource.getMinimumIdle());
+        }
+    }
+
+    @Test
+    public void testExplicitPoolSizeWins() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("datasource.pool.cores", "4")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "3");
+        BeanPostProcessor postProcessor = DataSourcePoolConfig.hikariPoolSizePostProcessor(environment);
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(3);
+            postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+            assertEquals(3, dataSource.getMaximumPoolSize());
+        }
+    }
+}
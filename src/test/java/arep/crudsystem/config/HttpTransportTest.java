@@ -0,0 +1,195 @@
+package arep.crudsystem.config;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.io.ByteArrayInputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.cert.X509Certificate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the TLS connector (protocols, session cache, HTTP/2 and response compression),
+ * using the bundled self-signed keystore.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class HttpTransportTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ServletWebServerApplicationContext webServerContext;
+
+    @AfterEach
+    void tearDown() {
+        propertyRepository.deleteAll();
+    }
+
+    @Test
+    void testTlsConnectorNegotiatesHttp2() throws Exception {
+        HttpResponse<byte[]> response = get("/api/properties?page=0&size=5", "identity");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_2, response.version());
+    }
+
+    @Test
+    void testTextResponsesAreGzipped() throws Exception {
+        HttpResponse<byte[]> plain = get("/home.js", "identity");
+        HttpResponse<byte[]> gzipped = get("/home.js", "gzip");
+
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(gzipped.body().length < plain.body().length);
+        try (GZIPInputStream decompressed = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            assertArrayEquals(plain.body(), decompressed.readAllBytes());
+        }
+    }
+
+    @Test
+    void testTaggedSearchPagesAreGzipped() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Property property = new Property();
+            property.setAddress("Calle " + i);
+            property.setPrice(100000.0 + i);
+            property.setSize(80.0);
+            property.setDescription("Apartamento con terraza y vista a la ciudad");
+            propertyRepository.save(property);
+        }
+
+        HttpResponse<byte[]> response = get("/api/properties/search?maxSize=100&size=20&withTotal=false", "gzip");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("ETag").orElseThrow().startsWith("W/"));
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElseThrow());
+    }
+
+    @Test
+    void testTlsPrefersModernProtocolAndSuites() throws Exception {
+        assertEquals("TLSv1.3", handshake("TLSv1.3", "TLSv1.2").getProtocol());
+
+        SSLSession tls12 = handshake("TLSv1.2");
+        assertEquals("TLSv1.2", tls12.getProtocol());
+        assertTrue(tls12.getCipherSuite().startsWith("TLS_ECDHE_"), tls12.getCipherSuite());
+        assertTrue(tls12.getCipherSuite().contains("_GCM_"), tls12.getCipherSuite());
+    }
+
+    @Test
+    void testSessionCacheIsConfigured() {
+        Connector connector = ((TomcatWebServer) webServerContext.getWebServer()).getTomcat().getConnector();
+        SSLHostConfig sslHostConfig = connector.findSslHostConfigs()[0];
+
+        assertEquals(20480, sslHostConfig.getSessionCacheSize());
+        assertEquals(86400, sslHostConfig.getSessionTimeout());
+        assertTrue(sslHostConfig.getHonorCipherOrder());
+    }
+
+    private SSLSession handshake(String... protocols) throws Exception {
+        try (SSLSocket socket = (SSLSocket) trustingSslContext().getSocketFactory().createSocket("localhost", port)) {
+            socket.setEnabledProtocols(protocols);
+            socket.startHandshake();
+            return socket.getSession();
+        }
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("https://localhost:" + port + path))
+                .header("Accept-Encoding", acceptEncoding)
+                .GET()
+                .build();
+        return trustingClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Builds a client that trusts the bundled self-signed certificate.
+     *
+     * @return The client.
+     * @throws Exception If the TLS context cannot be created.
+     */
+    public static HttpClient trustingClient() throws Exception {
+        return trustingClientBuilder().build();
+    }
+
+    /**
+     * Builds a client builder that trusts the bundled self-signed certificate.
+     *
+     * @return The client builder.
+     * @throws Exception If the TLS context cannot be created.
+     */
+    public static HttpClient.Builder trustingClientBuilder() throws Exception {
+        return HttpClient.newBuilder().sslContext(trustingSslContext());
+    }
+
+    /**
+     * Builds a TLS context that trusts the bundled self-signed certificate.
+     * Sockets from the same context share its client session cache, so they can resume sessions.
+     *
+     * @return The TLS context.
+     * @throws Exception If the TLS context cannot be created.
+     */
+    public static SSLContext trustingSslContext() throws Exception {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, new TrustManager[]{new TrustAllManager()}, null);
+        return sslContext;
+    }
+
+    /**
+     * Accepts the self-signed test certificate; as an extended manager it also skips the hostname check.
+     */
+    private static class TrustAllManager extends X509ExtendedTrustManager {
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) {
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
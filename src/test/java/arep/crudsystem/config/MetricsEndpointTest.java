@@ -0,0 +1,55 @@
+package arep.crudsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.ssl.enabled=false")
+class MetricsEndpointTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void testPrometheusEndpointExposesApplicationMetrics() throws Exception {
+        assertEquals(200, get(port, "/api/properties?page=0&size=5").statusCode());
+        get(port, "/api/properties/1");
+
+        HttpResponse<String> response = get(managementPort, "/actuator/prometheus");
+
+        assertEquals(200, response.statusCode());
+        String body = response.body();
+        assertTrue(body.contains("http_server_requests_seconds_bucket"));
+        assertTrue(body.contains("uri=\"/api/properties\""));
+        assertTrue(body.contains("spring_data_repository_invocations_seconds_bucket"));
+        assertTrue(body.contains("hikaricp_connections_pending"));
+        assertTrue(body.contains("cache_gets_total{application=\"crudsystem\",cache=\"properties\""));
+        assertTrue(body.contains("cache=\"verifiedCredentials\""));
+    }
+
+    @Test
+    void testActuatorIsNotServedOnPublicPort() throws Exception {
+        assertNotEquals(200, get(port, "/actuator/prometheus").statusCode());
+    }
+
+    private HttpResponse<String> get(int targetPort, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + targetPort + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
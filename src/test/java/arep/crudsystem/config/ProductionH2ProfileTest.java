@@ -0,0 +1,34 @@
+package arep.crudsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"server.ssl.enabled=false", "H2_DATABASE=mem:prod-h2-profile"})
+@ActiveProfiles("prod-h2")
+class ProductionH2ProfileTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testPoolIsTuned() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        int expectedSize = DataSourcePoolConfig.poolSize(Runtime.getRuntime().availableProcessors(), 2, 1);
+
+        assertEquals("crudsystem", hikari.getPoolName());
+        assertEquals(expectedSize, hikari.getMaximumPoolSize());
+        assertEquals(expectedSize, hikari.getMinimumIdle());
+        assertEquals(30000, hikari.getLeakDetectionThreshold());
+        assertTrue(hikari.getJdbcUrl().endsWith(";QUERY_CACHE_SIZE=64"));
+        try (var connection = dataSource.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package arep.crudsystem.config;
+
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.security.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which property endpoints need a Bearer token.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.ssl.enabled=false")
+public class SecurityConfigTest {
+
+    private static final String PROPERTY = "{\"address\":\"Calle 1\",\"price\":100000,\"size\":80,\"description\":\"Casa\"}";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        propertyRepository.deleteAll();
+    }
+
+    @Test
+    void testWritesWithoutTokenAreUnauthorized() throws Exception {
+        assertEquals(401, send(null, "POST", "/api/properties", PROPERTY));
+        assertEquals(401, send(null, "PUT", "/api/properties/1", PROPERTY));
+        assertEquals(401, send(null, "DELETE", "/api/properties/1", null));
+        assertEquals(401, send(null, "POST", "/api/properties/batch", "[" + PROPERTY + "]"));
+        assertEquals(401, send(null, "DELETE", "/api/properties/batch", "[1]"));
+        assertEquals(401, send(null, "GET", "/api/properties/export", null));
+        assertEquals(401, send("not-a-token", "POST", "/api/properties", PROPERTY));
+        assertEquals(0, propertyRepository.count());
+    }
+
+    @Test
+    void testReadsArePublic() throws Exception {
+        assertEquals(200, send(null, "GET", "/api/properties?page=0&size=5", null));
+        assertEquals(200, send(null, "GET", "/api/properties/search?query=casa", null));
+    }
+
+    @Test
+    void testWritesWithTokenAreAllowed() throws Exception {
+        String token = tokenService.issue("testuser");
+
+        assertEquals(200, send(token, "POST", "/api/properties", PROPERTY));
+        assertEquals(200, send(token, "POST", "/api/properties/batch", "[" + PROPERTY + "]"));
+        assertEquals(200, send(token, "GET", "/api/properties/export", null));
+        assertEquals(2, propertyRepository.count());
+    }
+
+    private int send(String token, String method, String path, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json));
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
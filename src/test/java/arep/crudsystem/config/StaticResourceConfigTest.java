@@ -0,0 +1,63 @@
+package arep.crudsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.ssl.enabled=false")
+class StaticResourceConfigTest {
+
+    private static final Pattern VERSIONED_SCRIPT = Pattern.compile("src=\"(home-[0-9a-f]{32}\\.js)\"");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testHtmlLinksToFingerprintedAssets() throws Exception {
+        HttpResponse<String> page = get("/home.html");
+
+        assertEquals(200, page.statusCode());
+        assertEquals("no-cache", page.headers().firstValue("Cache-Control").orElseThrow());
+        assertTrue(page.body().matches("(?s).*href=\"home-[0-9a-f]{32}\\.css\".*"));
+
+        Matcher script = VERSIONED_SCRIPT.matcher(page.body());
+        assertTrue(script.find());
+        HttpResponse<String> asset = get("/" + script.group(1));
+
+        assertEquals(200, asset.statusCode());
+        assertEquals("max-age=31536000, public, immutable", asset.headers().firstValue("Cache-Control").orElseThrow());
+    }
+
+    @Test
+    void testExternalLinksAreKept() throws Exception {
+        HttpResponse<String> page = get("/index.html");
+
+        assertTrue(page.body().contains("href=\"https://fonts.googleapis.com/"));
+        assertTrue(page.body().matches("(?s).*src=\"script-[0-9a-f]{32}\\.js\".*"));
+    }
+
+    @Test
+    void testStylesheetLinksAreFingerprinted() throws Exception {
+        HttpResponse<String> stylesheet = get("/home.css");
+
+        assertEquals(200, stylesheet.statusCode());
+        assertTrue(stylesheet.body().matches("(?s).*url\\('/images/logo-[0-9a-f]{32}\\.png'\\).*"));
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
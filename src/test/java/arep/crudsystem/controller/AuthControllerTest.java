@@ -1,6 +1,7 @@
 package arep.crudsystem.controller;
 
 import arep.crudsystem.model.User;
+import arep.crudsystem.security.TokenService;
 import arep.crudsystem.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,6 +24,9 @@ class AuthControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TokenService tokenService;
+
     @InjectMocks
     private AuthController authController;
 
@@ -66,6 +71,8 @@ class AuthControllerTest {
     void testLoginSuccess() {
         // Arrange
         when(userService.authenticate(anyString(), anyString())).thenReturn(true);
+        when(tokenService.issue("testuser")).thenReturn("signed.token.value");
+        when(tokenService.getTtl()).thenReturn(Duration.ofHours(1));
 
         // Act
         ResponseEntity<Map<String, String>> response = authController.login("testuser", "password");
@@ -74,6 +81,9 @@ class AuthControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Login successful", response.getBody().get("message"));
         assertEquals("https://taller6arep2025apache.duckdns.org/home.html", response.getBody().get("redirectUrl"));
+        assertEquals("signed.token.value", response.getBody().get("token"));
+        assertEquals("Bearer", response.getBody().get("tokenType"));
+        assertEquals("3600", response.getBody().get("expiresIn"));
         verify(userService, times(1)).authenticate("testuser", "password");
     }
 
@@ -89,6 +99,7 @@ class AuthControllerTest {
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
         assertEquals("Invalid credentials", response.getBody().get("message"));
         verify(userService, times(1)).authenticate("testuser", "password");
+        verify(tokenService, never()).issue(anyString());
     }
 
     @Test
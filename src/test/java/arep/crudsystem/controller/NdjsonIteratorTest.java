@@ -0,0 +1,27 @@
+package arep.crudsystem.controller;
+
+import arep.crudsystem.model.Property;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonIteratorTest {
+
+    @Test
+    void testIteratesLinesAndReportsInvalidOnes() {
+        String body = "{\"address\":\"Calle 1\",\"price\":1,\"size\":1}\n\n{oops\n{\"address\":\"Calle 2\",\"price\":2,\"size\":2}\n";
+        NdjsonIterator<Property> iterator = new NdjsonIterator<>(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                new ObjectMapper().readerFor(Property.class));
+
+        assertEquals("Calle 1", iterator.next().getAddress());
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, iterator::next);
+        assertTrue(error.getMessage().contains("line 3"));
+        assertEquals("Calle 2", iterator.next().getAddress());
+        assertFalse(iterator.hasNext());
+    }
+}
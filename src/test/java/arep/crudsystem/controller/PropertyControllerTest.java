@@ -1,26 +1,49 @@
 package arep.crudsystem.controller;
 
+import arep.crudsystem.event.PropertyEventBroadcaster;
 import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.service.BatchResult;
+import arep.crudsystem.service.ExportFormat;
+import arep.crudsystem.service.PropertyBatchService;
+import arep.crudsystem.service.PropertyExportService;
 import arep.crudsystem.service.PropertyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import arep.crudsystem.pagination.PropertyCursor;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,9 +56,28 @@ public class PropertyControllerTest {
     @Mock
     private PropertyService propertyService;
 
+    @Mock
+    private PropertyBatchService propertyBatchService;
+
+    @Mock
+    private PropertyExportService propertyExportService;
+
+    @Mock
+    private PropertyEventBroadcaster eventBroadcaster;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private PropertyController propertyController;
 
+    @BeforeEach
+    public void setUp() {
+        // Set by Spring from application.properties
+        ReflectionTestUtils.setField(propertyController, "maxPageSize", 100);
+        ReflectionTestUtils.setField(propertyController, "maxOffset", 10000L);
+        ReflectionTestUtils.setField(propertyController, "exportTimeout", Duration.ofHours(1));
+    }
 
     @Test
     public void testGetAllProperties() throws Exception {
@@ -61,6 +103,123 @@ public class PropertyControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testGetAllPropertiesWithoutTotal() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        Property property1 = new Property();
+        property1.setId(1L);
+
+        when(propertyService.searchPropertiesSlice(null, null, null, 2, 1))
+                .thenReturn(new SliceImpl<>(List.of(property1), PageRequest.of(2, 1), true));
+
+        mockMvc.perform(get("/api/properties")
+                        .param("page", "2")
+                        .param("size", "1")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.number").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        verify(propertyService, never()).getAllProperties(any(Integer.class), any(Integer.class));
+    }
+
+    @Test
+    public void testSearchPropertiesWithApproximateTotal() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(propertyService.searchPropertiesWithApproximateTotal("centro", null, null, 0, 5))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 5), 42));
+
+        mockMvc.perform(get("/api/properties/search")
+                        .param("query", "centro")
+                        .param("withTotal", "approximate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(42));
+    }
+
+    @Test
+    public void testSearchPropertySummaries() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        PropertySummary summary = new PropertySummary(1L, "Calle 123", 150000.0, 80.0);
+        when(propertyService.searchPropertySummaries("centro", null, null, 0, 5))
+                .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 5), 1));
+
+        mockMvc.perform(get("/api/properties/search")
+                        .param("query", "centro")
+                        .param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].address").value("Calle 123"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(1));
+        verify(propertyService, never()).searchProperties(any(), any(), any(), any(Integer.class), any(Integer.class));
+    }
+
+    @Test
+    public void testGetAllPropertySummariesWithoutTotal() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        PropertySummary summary = new PropertySummary(1L, "Calle 123", 150000.0, 80.0);
+        when(propertyService.searchPropertySummariesSlice(null, null, null, 0, 1))
+                .thenReturn(new SliceImpl<>(List.of(summary), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/api/properties")
+                        .param("size", "1")
+                        .param("withTotal", "false")
+                        .param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    public void testGetAllPropertiesInvalidFields() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        mockMvc.perform(get("/api/properties")
+                        .param("fields", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetPropertiesAfter() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        Property property1 = new Property();
+        property1.setId(1L);
+        property1.setAddress("Calle 123");
+
+        when(propertyService.getPropertiesAfter(any(PropertyCursor.class), any(Integer.class)))
+                .thenReturn(new SliceImpl<>(List.of(property1), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/api/properties")
+                        .param("after", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void testGetPropertiesAfterInvalidCursor() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        mockMvc.perform(get("/api/properties")
+                        .param("after", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testCreateProperty() throws Exception {
 
@@ -80,6 +239,99 @@ public class PropertyControllerTest {
                 .andExpect(jsonPath("$.address").value("Calle 123"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreatePropertiesFromNdjson() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(propertyBatchService.createProperties(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<Property> items = invocation.getArgument(0);
+            int count = 0;
+            while (items.hasNext()) {
+                items.next();
+                count++;
+            }
+            return new BatchResult(count, 0, List.of());
+        });
+
+        mockMvc.perform(post("/api/properties/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"address\":\"Calle 1\",\"price\":1,\"size\":1}\n{\"address\":\"Calle 2\",\"price\":2,\"size\":2}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2));
+    }
+
+    @Test
+    public void testDeleteProperties() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(propertyBatchService.deleteProperties(List.of(1L, 2L))).thenReturn(new BatchResult(2, 0, List.of()));
+
+        mockMvc.perform(delete("/api/properties/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2));
+    }
+
+    @Test
+    public void testExportProperties() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(propertyExportService.exportProperties(any(OutputStream.class), eq(ExportFormat.CSV))).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(0);
+            output.write("id,address,price,size,description\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        var result = mockMvc.perform(get("/api/properties/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofHours(1).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,address,price,size,description\n"));
+    }
+
+    @Test
+    public void testStreamEvents() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(eventBroadcaster.subscribe("127.0.0.1")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/properties/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    public void testStreamEventsWhenFull() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(eventBroadcaster.subscribe("127.0.0.1")).thenThrow(new IllegalStateException("Too many open event streams"));
+
+        mockMvc.perform(get("/api/properties/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void testStreamEventsOverClientLimit() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(eventBroadcaster.subscribe("127.0.0.1")).thenThrow(
+                new PropertyEventBroadcaster.ClientStreamLimitException("Too many open event streams for this client"));
+
+        mockMvc.perform(get("/api/properties/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isTooManyRequests());
+    }
+
     @Test
     public void testGetPropertyById() throws Exception {
 
@@ -97,6 +349,73 @@ public class PropertyControllerTest {
                 .andExpect(jsonPath("$.address").value("Calle 123"));
     }
 
+    @Test
+    public void testGetPropertyByIdNotModified() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        Property property = new Property();
+        property.setId(1L);
+        property.setVersion(3L);
+        property.setUpdatedAt(Instant.parse("2025-03-01T10:00:00Z"));
+        when(propertyService.getPropertyById(1L)).thenReturn(Optional.of(property));
+
+        mockMvc.perform(get("/api/properties/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-3\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().exists("Last-Modified"));
+        mockMvc.perform(get("/api/properties/1").header("If-None-Match", "W/\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/properties/1").header("If-None-Match", "W/\"1-2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testGetAllPropertiesNotModifiedSkipsQuery() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(propertyService.getListingVersion()).thenReturn("abc-7");
+
+        mockMvc.perform(get("/api/properties").header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc-7\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        verify(propertyService, never()).getAllProperties(any(Integer.class), any(Integer.class));
+    }
+
+    @Test
+    public void testListingReadFromALaggingReplicaIsNotTagged() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(propertyService.getListingVersion()).thenReturn(null);
+        when(propertyService.getAllProperties(0, 5)).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 5), 0));
+
+        mockMvc.perform(get("/api/properties").header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    public void testDeepOrLargePagesAreRejected() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        mockMvc.perform(get("/api/properties").param("page", "100000").param("size", "100"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/search").param("page", "0").param("size", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties").param("after", "").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        verify(propertyService, never()).getAllProperties(any(Integer.class), any(Integer.class));
+    }
+
     @Test
     public void testUpdateProperty() throws Exception {
 
@@ -110,12 +429,51 @@ public class PropertyControllerTest {
 
         mockMvc.perform(put("/api/properties/1")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{\"address\":\"Calle 456\",\"price\":200000,\"size\":200,\"description\":\"Casa grande\"}"))
+                        .content("{\"address\":\"Calle 456\",\"price\":200000,\"size\":200,\"description\":\"Casa grande\",\"version\":0}"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.address").value("Calle 456"));
     }
 
+    @Test
+    public void testUpdatePropertyWithoutVersion() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        mockMvc.perform(put("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"Calle 456\",\"price\":200000,\"size\":200}"))
+                .andExpect(status().isPreconditionRequired());
+        verify(propertyService, never()).updateProperty(any(Long.class), any(Property.class));
+    }
+
+    @Test
+    public void testUpdatePropertyWithIfMatchOnlyIsRejected() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        mockMvc.perform(put("/api/properties/1")
+                        .header("If-Match", "W/\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"Calle 456\",\"price\":200000,\"size\":200}"))
+                .andExpect(status().isPreconditionRequired());
+        verify(propertyService, never()).updateProperty(any(Long.class), any(Property.class));
+    }
+
+    @Test
+    public void testUpdatePropertyConflict() throws Exception {
+
+        mockMvc = MockMvcBuilders.standaloneSetup(propertyController).build();
+
+        when(propertyService.updateProperty(any(Long.class), any(Property.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Property.class, 1L));
+
+        mockMvc.perform(put("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"Calle 456\",\"price\":200000,\"size\":200,\"version\":0}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void testDeleteProperty() throws Exception {
 
@@ -0,0 +1,109 @@
+package arep.crudsystem.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertyEventBroadcasterTest {
+
+    private PropertyEventBroadcaster broadcaster;
+
+    @AfterEach
+    public void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    public void testEachClientHoldsLimitedStreams() {
+        broadcaster = broadcaster(10, 2, 100);
+
+        broadcaster.subscribe("10.0.0.1");
+        broadcaster.subscribe("10.0.0.1");
+        assertThrows(PropertyEventBroadcaster.ClientStreamLimitException.class, () -> broadcaster.subscribe("10.0.0.1"));
+
+        broadcaster.subscribe("10.0.0.2");
+        assertEquals(2, broadcaster.getSubscriberCount("10.0.0.1"));
+        assertEquals(3, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    public void testStreamsAreCappedOverall() {
+        broadcaster = broadcaster(2, 2, 100);
+
+        broadcaster.subscribe("10.0.0.1");
+        broadcaster.subscribe("10.0.0.2");
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> broadcaster.subscribe("10.0.0.3"));
+        assertFalse(e instanceof PropertyEventBroadcaster.ClientStreamLimitException);
+        assertEquals(0, broadcaster.getSubscriberCount("10.0.0.3"));
+    }
+
+    @Test
+    public void testConcurrentSubscribesStayWithinTheCap() throws Exception {
+        broadcaster = broadcaster(10, 2, 100);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger opened = new AtomicInteger();
+        List<Runnable> attempts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String client = "10.0.0." + i;
+            attempts.add(() -> {
+                try {
+                    start.await();
+                    broadcaster.subscribe(client);
+                    opened.incrementAndGet();
+                } catch (IllegalStateException | InterruptedException e) {
+                    // Over the cap
+                }
+            });
+        }
+        attempts.forEach(clients::execute);
+        start.countDown();
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10, opened.get());
+        assertEquals(10, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    public void testClientOccupiesOnlyItsShareOfTheSenders() {
+        broadcaster = new PropertyEventBroadcaster(16, 10, 4, 100, Duration.ofMinutes(1),
+                Duration.ofHours(1), Duration.ofHours(1), 4, 2);
+
+        assertTrue(broadcaster.acquireSender("10.0.0.1"));
+        assertTrue(broadcaster.acquireSender("10.0.0.1"));
+        assertFalse(broadcaster.acquireSender("10.0.0.1"));
+        assertTrue(broadcaster.acquireSender("10.0.0.2"));
+
+        broadcaster.releaseSender("10.0.0.1");
+        assertTrue(broadcaster.acquireSender("10.0.0.1"));
+    }
+
+    @Test
+    public void testCapMustStayBelowMaxConnections() {
+        assertThrows(IllegalStateException.class, () -> broadcaster(100, 2, 100));
+    }
+
+    @Test
+    public void testClientShareMustStayBelowTheSenderPool() {
+        assertThrows(IllegalStateException.class, () -> new PropertyEventBroadcaster(16, 10, 4, 100,
+                Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofSeconds(15), 4, 4));
+    }
+
+    private static PropertyEventBroadcaster broadcaster(int maxSubscribers, int maxPerClient, int maxConnections) {
+        return new PropertyEventBroadcaster(16, maxSubscribers, maxPerClient, maxConnections, Duration.ofMinutes(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(15), 2, 1);
+    }
+}
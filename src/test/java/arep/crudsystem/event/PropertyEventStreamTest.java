@@ -0,0 +1,130 @@
+package arep.crudsystem.event;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.service.PropertyBatchService;
+import arep.crudsystem.service.PropertyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.ssl.enabled=false",
+                "property.events.flush-interval=50ms",
+                "property.events.buffer-capacity=3"})
+class PropertyEventStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyBatchService propertyBatchService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyEventBroadcaster eventBroadcaster;
+
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+    private Stream<String> stream;
+
+    @BeforeEach
+    void openStream() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/properties/events"))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+        assertEquals("no-store", response.headers().firstValue("Cache-Control").orElseThrow());
+        assertEquals("no", response.headers().firstValue("X-Accel-Buffering").orElseThrow());
+        stream = response.body();
+        Thread reader = new Thread(() -> stream.forEach(lines::add));
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.close();
+        propertyRepository.deleteAll();
+    }
+
+    @Test
+    void testChangesAreStreamed() throws Exception {
+        // Streams of earlier tests may not have been noticed as closed yet
+        assertTrue(eventBroadcaster.getSubscriberCount() >= 1);
+
+        Property property = propertyService.createProperty(property("Calle 1"));
+        List<String> created = nextEvent("created");
+        assertTrue(created.get(1).contains("\"address\":\"Calle 1\""), created.toString());
+
+        property.setAddress("Calle 1A");
+        propertyService.updateProperty(property.getId(), property);
+        List<String> updated = nextEvent("updated");
+        assertTrue(updated.get(1).contains("\"address\":\"Calle 1A\""), updated.toString());
+
+        propertyService.deleteProperty(property.getId());
+        List<String> deleted = nextEvent("deleted");
+        assertTrue(deleted.get(1).contains("\"id\":" + property.getId()), deleted.toString());
+    }
+
+    @Test
+    void testBulkWritesOverflowIntoResync() throws Exception {
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            properties.add(property("Calle " + i));
+        }
+
+        propertyBatchService.createProperties(properties.iterator());
+
+        nextEvent(PropertyEventBroadcaster.RESYNC_EVENT);
+    }
+
+    /**
+     * Reads lines until the named event arrives.
+     *
+     * @return The "event:" line followed by the "data:" line.
+     */
+    private List<String> nextEvent(String name) throws InterruptedException {
+        while (true) {
+            String line = lines.poll(10, TimeUnit.SECONDS);
+            assertNotNull(line, "No " + name + " event received");
+            if (line.equals("event:" + name)) {
+                return List.of(line, lines.poll(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    private static Property property(String address) {
+        Property property = new Property();
+        property.setAddress(address);
+        property.setPrice(100000.0);
+        property.setSize(80.0);
+        property.setDescription("Casa");
+        return property;
+    }
+}
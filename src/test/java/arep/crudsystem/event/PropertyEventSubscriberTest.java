@@ -0,0 +1,68 @@
+package arep.crudsystem.event;
+
+import arep.crudsystem.model.Property;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertyEventSubscriberTest {
+
+    @Test
+    public void testChangesArePassedOnInOrder() {
+        PropertyEventSubscriber subscriber = new PropertyEventSubscriber(new SseEmitter(), 10);
+
+        subscriber.offer(PropertyChangeEvent.updated(property(2L, "Calle 2")));
+        subscriber.offer(PropertyChangeEvent.deleted(1L));
+
+        PropertyEventSubscriber.Batch batch = subscriber.drain();
+        assertFalse(batch.resync());
+        assertEquals(List.of(2L, 1L), batch.events().stream().map(PropertyChangeEvent::id).toList());
+        assertFalse(subscriber.hasPending());
+        assertTrue(subscriber.drain().isEmpty());
+    }
+
+    @Test
+    public void testChangesToTheSamePropertyAreCoalesced() {
+        PropertyEventSubscriber subscriber = new PropertyEventSubscriber(new SseEmitter(), 10);
+
+        assertFalse(subscriber.offer(PropertyChangeEvent.created(property(1L, "Calle 1"))));
+        assertTrue(subscriber.offer(PropertyChangeEvent.updated(property(1L, "Calle 1A"))));
+        assertTrue(subscriber.offer(PropertyChangeEvent.updated(property(1L, "Calle 1B"))));
+        subscriber.offer(PropertyChangeEvent.updated(property(2L, "Calle 2")));
+        subscriber.offer(PropertyChangeEvent.deleted(2L));
+
+        List<PropertyChangeEvent> events = subscriber.drain().events();
+        assertEquals(2, events.size());
+        assertEquals(PropertyChangeEvent.Type.CREATED, events.get(0).type());
+        assertEquals("Calle 1B", events.get(0).property().getAddress());
+        assertEquals(PropertyChangeEvent.deleted(2L), events.get(1));
+    }
+
+    @Test
+    public void testOverflowTurnsIntoResync() {
+        PropertyEventSubscriber subscriber = new PropertyEventSubscriber(new SseEmitter(), 2);
+
+        for (long id = 1; id <= 5; id++) {
+            subscriber.offer(PropertyChangeEvent.deleted(id));
+        }
+
+        PropertyEventSubscriber.Batch batch = subscriber.drain();
+        assertTrue(batch.resync());
+        assertTrue(batch.events().isEmpty());
+
+        subscriber.offer(PropertyChangeEvent.deleted(6L));
+        batch = subscriber.drain();
+        assertFalse(batch.resync());
+        assertEquals(1, batch.events().size());
+    }
+
+    private static Property property(Long id, String address) {
+        Property property = new Property();
+        property.setId(id);
+        property.setAddress(address);
+        return property;
+    }
+}
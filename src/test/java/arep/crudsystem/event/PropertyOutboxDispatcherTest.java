@@ -0,0 +1,242 @@
+package arep.crudsystem.event;
+
+import arep.crudsystem.config.CacheConfig;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertyOutboxEntry;
+import arep.crudsystem.repository.PropertyOutboxRepository;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.service.PropertyCacheEvictor;
+import arep.crudsystem.sharding.PropertyShards;
+import arep.crudsystem.sharding.SnowflakeIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({PropertyOutbox.class, PropertyOutboxDispatcher.class, PropertyShards.class})
+@TestPropertySource(properties = {"property.outbox.batch-size=2", "property.outbox.poll-interval=1h"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PropertyOutboxDispatcherTest {
+
+    @Autowired
+    private PropertyOutboxDispatcher dispatcher;
+
+    @Autowired
+    private PropertyOutbox outbox;
+
+    @Autowired
+    private PropertyOutboxRepository outboxRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PropertyShards shards;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private PropertyChangeConsumer consumer;
+
+    @AfterEach
+    public void tearDown() {
+        propertyRepository.deleteAll();
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDrainDeliversCurrentStateOncePerProperty() {
+        Property property = propertyRepository.save(property("Calle 1"));
+        property.setAddress("Calle 1A");
+        propertyRepository.save(property);
+        outboxRepository.saveAll(List.of(
+                entry(property.getId(), PropertyChangeEvent.Type.CREATED),
+                entry(property.getId(), PropertyChangeEvent.Type.UPDATED),
+                entry(99L, PropertyChangeEvent.Type.DELETED)));
+
+        assertEquals(3, dispatcher.drain());
+
+        ArgumentCaptor<List<PropertyChangeEvent>> batches = ArgumentCaptor.forClass(List.class);
+        verify(consumer, times(2)).onChanges(batches.capture());
+        PropertyChangeEvent created = batches.getAllValues().get(0).get(0);
+        assertEquals(1, batches.getAllValues().get(0).size());
+        assertEquals(PropertyChangeEvent.Type.CREATED, created.type());
+        assertEquals("Calle 1A", created.property().getAddress());
+        assertEquals(List.of(PropertyChangeEvent.deleted(99L)), batches.getAllValues().get(1));
+        assertEquals(0, dispatcher.drain());
+        assertEquals(3, outboxRepository.count());
+    }
+
+    @Test
+    public void testFailedBatchIsDeliveredAgain() {
+        outboxRepository.save(entry(1L, PropertyChangeEvent.Type.DELETED));
+        doThrow(new IllegalStateException("index unavailable")).when(consumer).onChanges(anyList());
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.drain());
+        assertEquals(1, outboxRepository.count());
+
+        doNothing().when(consumer).onChanges(anyList());
+        assertEquals(1, dispatcher.drain());
+        verify(consumer, times(2)).onChanges(List.of(PropertyChangeEvent.deleted(1L)));
+        assertEquals(0, dispatcher.drain());
+    }
+
+    @Test
+    public void testFailingConsumerDoesNotHoldBackTheOthers() {
+        PropertyChangeConsumer failing = mock(PropertyChangeConsumer.class);
+        PropertyChangeConsumer working = mock(PropertyChangeConsumer.class);
+        doThrow(new IllegalStateException("broken")).when(failing).onChanges(anyList());
+        PropertyOutboxDispatcher other = dispatcher(failing, working);
+        try {
+            outboxRepository.save(entry(1L, PropertyChangeEvent.Type.DELETED));
+
+            // Delivered to both consumers on every attempt, and skipped after the third
+            assertThrows(IllegalStateException.class, other::drain);
+            assertThrows(IllegalStateException.class, other::drain);
+            assertEquals(0, other.drain());
+            verify(working, times(3)).onChanges(List.of(PropertyChangeEvent.deleted(1L)));
+
+            doNothing().when(failing).onChanges(anyList());
+            outboxRepository.save(entry(2L, PropertyChangeEvent.Type.DELETED));
+            assertEquals(1, other.drain());
+            verify(failing).onChanges(List.of(PropertyChangeEvent.deleted(2L)));
+            verify(working).onChanges(List.of(PropertyChangeEvent.deleted(2L)));
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testInstancesSharingTheOutboxEachDeliverEveryEntry() {
+        PropertyChangeConsumer otherConsumer = mock(PropertyChangeConsumer.class);
+        PropertyOutboxDispatcher other = dispatcher(otherConsumer);
+        try {
+            outboxRepository.save(entry(1L, PropertyChangeEvent.Type.DELETED));
+
+            assertEquals(1, dispatcher.drain());
+            assertEquals(1, other.drain());
+            verify(consumer).onChanges(List.of(PropertyChangeEvent.deleted(1L)));
+            verify(otherConsumer).onChanges(List.of(PropertyChangeEvent.deleted(1L)));
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testEveryInstanceEvictsChangedPropertiesFromItsCache() {
+        CacheManager cacheA = cacheManager();
+        CacheManager cacheB = cacheManager();
+        PropertyOutboxDispatcher instanceA = dispatcher(new PropertyCacheEvictor(cacheA));
+        PropertyOutboxDispatcher instanceB = dispatcher(new PropertyCacheEvictor(cacheB));
+        try {
+            Property property = propertyRepository.save(property("Calle 1"));
+            for (CacheManager cacheManager : List.of(cacheA, cacheB)) {
+                cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).put(property.getId(), property);
+                cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).put(99L, property("Calle 99"));
+            }
+            outboxRepository.save(entry(property.getId(), PropertyChangeEvent.Type.UPDATED));
+
+            assertEquals(1, instanceA.drain());
+            assertEquals(1, instanceB.drain());
+            for (CacheManager cacheManager : List.of(cacheA, cacheB)) {
+                assertNull(cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).get(property.getId()));
+                assertNotNull(cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).get(99L));
+            }
+        } finally {
+            instanceA.shutdown();
+            instanceB.shutdown();
+        }
+    }
+
+    @Test
+    public void testLateCommitWithinLookbackIsDelivered() {
+        outboxRepository.save(entry(1L, PropertyChangeEvent.Type.DELETED));
+        assertEquals(1, dispatcher.drain());
+
+        // Committed now, but with the ID of a transaction that started 5 seconds ago
+        insertEntry(SnowflakeIdGenerator.firstIdAt(System.currentTimeMillis() - 5000), 2L);
+
+        assertEquals(1, dispatcher.drain());
+        verify(consumer).onChanges(List.of(PropertyChangeEvent.deleted(2L)));
+        assertEquals(0, dispatcher.drain());
+    }
+
+    @Test
+    public void testExpiredEntriesAreDeleted() {
+        insertEntry(SnowflakeIdGenerator.firstIdAt(System.currentTimeMillis() - Duration.ofHours(2).toMillis()), 1L);
+        outboxRepository.save(entry(2L, PropertyChangeEvent.Type.DELETED));
+
+        dispatcher.deleteExpired();
+
+        assertEquals(List.of(2L), outboxRepository.findAll().stream().map(PropertyOutboxEntry::getPropertyId).toList());
+    }
+
+    @Test
+    public void testEntriesAreRolledBackWithTheChange() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Property property = propertyRepository.save(property("Calle 1"));
+            outbox.record(PropertyChangeEvent.Type.CREATED, property.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxRepository.count());
+        verify(consumer, never()).onChanges(anyList());
+    }
+
+    @Test
+    public void testRecordRequiresTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outbox.record(PropertyChangeEvent.Type.DELETED, 1L));
+    }
+
+    private PropertyOutboxDispatcher dispatcher(PropertyChangeConsumer... consumers) {
+        return new PropertyOutboxDispatcher(outboxRepository, propertyRepository, List.of(consumers),
+                transactionTemplate, shards, 2, 3, Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofHours(1));
+    }
+
+    private static CacheManager cacheManager() {
+        return new CacheConfig().cacheManager(100, Duration.ofMinutes(10), 100, Duration.ofMinutes(1));
+    }
+
+    private void insertEntry(long id, long propertyId) {
+        jdbcTemplate.update("INSERT INTO property_outbox (id, property_id, type, created_at) VALUES (?, ?, 'DELETED', ?)",
+                id, propertyId, Timestamp.from(Instant.now()));
+    }
+
+    private static PropertyOutboxEntry entry(Long propertyId, PropertyChangeEvent.Type type) {
+        return new PropertyOutboxEntry(propertyId, type, Instant.now());
+    }
+
+    private static Property property(String address) {
+        Property property = new Property();
+        property.setAddress(address);
+        property.setPrice(100000.0);
+        property.setSize(80.0);
+        return property;
+    }
+}
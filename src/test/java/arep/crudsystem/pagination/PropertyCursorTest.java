@@ -0,0 +1,40 @@
+package arep.crudsystem.pagination;
+
+import arep.crudsystem.model.Property;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertyCursorTest {
+
+    @Test
+    public void testEncodeDecodeIdCursor() {
+        Property property = new Property();
+        property.setId(42L);
+        property.setPrice(100000.0);
+
+        PropertyCursor cursor = PropertyCursor.decode(PropertyCursor.after(PropertySortKey.ID, property).encode());
+
+        assertEquals(PropertySortKey.ID, cursor.getSortKey());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    public void testEncodeDecodePriceCursor() {
+        Property property = new Property();
+        property.setId(7L);
+        property.setPrice(250000.5);
+
+        PropertyCursor cursor = PropertyCursor.decode(PropertyCursor.after(PropertySortKey.PRICE, property).encode());
+
+        assertEquals(PropertySortKey.PRICE, cursor.getSortKey());
+        assertEquals(250000.5, cursor.getPrice());
+        assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    public void testDecodeInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> PropertyCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PropertySortKey.fromParameter("address"));
+    }
+}
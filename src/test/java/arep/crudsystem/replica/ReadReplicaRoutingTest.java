@@ -0,0 +1,124 @@
+package arep.crudsystem.replica;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.security.TokenService;
+import arep.crudsystem.service.PropertyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand for the primary and its replica. The replica gets the primary's schema
+ * but different rows, so each read shows where it was served from.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.ssl.enabled=false",
+                "spring.datasource.url=jdbc:h2:mem:replica-routing-primary",
+                "datasource.replicas.urls=jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1",
+                "datasource.replicas.health-check-interval=1h"})
+class ReadReplicaRoutingTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:replica-routing-replica", "sa", ""));
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : jdbcTemplate.queryForList("SCRIPT NODATA", String.class)) {
+            replica.execute(statement);
+        }
+        replica.update("INSERT INTO properties (id, address, price, size, description, version) "
+                + "VALUES (1, 'Calle réplica', 100000, 80, 'Casa', 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        propertyRepository.deleteAll();
+    }
+
+    @Test
+    void testReadOnlyTransactionsAreServedByTheReplica() throws Exception {
+        assertEquals(1, dataSource.unwrap(ReplicaRoutingDataSource.class).getAvailableReplicaCount());
+        propertyService.createProperty(property("Calle primaria"));
+
+        assertEquals(List.of("Calle réplica"), addresses());
+        // Writes and the reads of write transactions stay on the primary
+        assertEquals(List.of("Calle primaria"),
+                jdbcTemplate.queryForList("SELECT address FROM properties", String.class));
+    }
+
+    @Test
+    void testClientReadsItsOwnWritesFromThePrimary() throws Exception {
+        HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+        HttpRequest list = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/properties?size=50"))
+                .GET()
+                .build();
+        assertTrue(client.send(list, HttpResponse.BodyHandlers.ofString()).body().contains("Calle réplica"));
+
+        HttpResponse<String> created = client.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/properties"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + tokenService.issue("testuser"))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"address\":\"Calle primaria\",\"price\":100000,\"size\":80,\"description\":\"Casa\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, created.statusCode());
+        assertTrue(created.headers().firstValue("Set-Cookie").orElseThrow()
+                .startsWith(ReadYourWritesFilter.COOKIE_NAME + "="));
+
+        String body = client.send(list, HttpResponse.BodyHandlers.ofString()).body();
+        assertTrue(body.contains("Calle primaria"), body);
+        assertFalse(body.contains("Calle réplica"), body);
+
+        // Other clients keep reading from the replica
+        String other = HttpClient.newHttpClient().send(list, HttpResponse.BodyHandlers.ofString()).body();
+        assertTrue(other.contains("Calle réplica"), other);
+    }
+
+    private List<String> addresses() {
+        return propertyService.getAllProperties(0, 50).map(Property::getAddress).getContent();
+    }
+
+    private static Property property(String address) {
+        Property property = new Property();
+        property.setAddress(address);
+        property.setPrice(100000.0);
+        property.setSize(80.0);
+        property.setDescription("Casa");
+        return property;
+    }
+}
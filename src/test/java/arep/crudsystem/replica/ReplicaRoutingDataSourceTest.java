@@ -0,0 +1,152 @@
+package arep.crudsystem.replica;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = node("routing-primary", "primary");
+
+    private final DataSource replica = node("routing-replica", "replica");
+
+    private final DataSource failingReplica = mock(DataSource.class);
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        route(Map.of("replica-1", replica));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        routingDataSource.close();
+        ReplicaRoutingDataSource.pinToPrimary(false);
+    }
+
+    @Test
+    public void testReadOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    public void testPinnedThreadReadsFromThePrimary() {
+        assertFalse(ReplicaRoutingDataSource.pinToPrimary(true));
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        assertTrue(ReplicaRoutingDataSource.pinToPrimary(false));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    public void testFailedReplicaIsTakenOutOfRotation() throws Exception {
+        when(failingReplica.getConnection()).thenAnswer(invocation -> replica.getConnection());
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", failingReplica);
+        replicas.put("replica-2", replica);
+        route(replicas);
+        assertEquals(2, routingDataSource.getAvailableReplicaCount());
+
+        when(failingReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        // One of the two reads is sent to the failing replica and runs on the primary instead
+        assertNotNull(readOnly.execute(status -> currentNode()));
+        assertNotNull(readOnly.execute(status -> currentNode()));
+
+        assertEquals(1, routingDataSource.getAvailableReplicaCount());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("replica", readOnly.execute(status -> currentNode()));
+        }
+    }
+
+    @Test
+    public void testReadsFallBackToThePrimaryUntilTheReplicaIsHealthy() throws Exception {
+        when(failingReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        route(Map.of("replica-1", failingReplica));
+
+        assertEquals(0, routingDataSource.getAvailableReplicaCount());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        reset(failingReplica);
+        when(failingReplica.getConnection()).thenAnswer(invocation -> replica.getConnection());
+        routingDataSource.checkReplicas();
+
+        assertEquals(1, routingDataSource.getAvailableReplicaCount());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    public void testLookupsWithoutConnectionLeaveTheRotationAlone() throws Exception {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica);
+        replicas.put("replica-2", node("routing-replica-2", "replica-2"));
+        route(replicas);
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertSame(primary, readOnly.execute(status -> unwrapTarget()));
+        assertTrue(routingDataSource.isWrapperFor(DriverManagerDataSource.class));
+        assertSame(routingDataSource, routingDataSource.unwrap(ReplicaRoutingDataSource.class));
+        assertEquals("replica-2", readOnly.execute(status -> currentNode()));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    /**
+     * Routes between the primary and the given replicas, as ReadReplicaConfig does.
+     */
+    private void route(Map<String, DataSource> replicas) throws Exception {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofHours(1), Duration.ofSeconds(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private DataSource unwrapTarget() {
+        try {
+            return routingDataSource.unwrap(DriverManagerDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String database, String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
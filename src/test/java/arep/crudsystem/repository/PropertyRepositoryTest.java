@@ -1,6 +1,9 @@
 package arep.crudsystem.repository;
 
 import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
+import arep.crudsystem.pagination.PropertySortKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +12,11 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -83,6 +90,97 @@ public class PropertyRepositoryTest {
         assertEquals("Calle 123", properties.getContent().get(0).getAddress());
     }
 
+    @Test
+    public void testFindAfterId() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Slice<Property> first = propertyRepository.findAfterId(Long.MIN_VALUE, pageable);
+
+        assertEquals(1, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(property1.getId(), first.getContent().get(0).getId());
+
+        Slice<Property> second = propertyRepository.findAfterId(property1.getId(), pageable);
+        assertEquals(property2.getId(), second.getContent().get(0).getId());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    public void testSearchAfterPrice() {
+        Slice<Property> properties = propertyRepository.searchAfter(null, null, null,
+                PropertyCursor.after(PropertySortKey.PRICE, property1), 5);
+
+        assertEquals(1, properties.getNumberOfElements());
+        assertFalse(properties.hasNext());
+        assertEquals("Avenida 456", properties.getContent().get(0).getAddress());
+    }
+
+    @Test
+    public void testSearchAfterWithFilters() {
+        Slice<Property> properties = propertyRepository.searchAfter("a", 250000.0, 300.0,
+                PropertyCursor.first(PropertySortKey.ID), 1);
+
+        assertEquals(1, properties.getNumberOfElements());
+        assertTrue(properties.hasNext());
+        assertEquals("Calle 123", properties.getContent().get(0).getAddress());
+    }
+
+    @Test
+    public void testSearchSliceReadsPagesWithoutTotal() {
+        Slice<Property> first = propertyRepository.searchSlice(null, null, null, PageRequest.of(0, 1, Sort.by("id")));
+        Slice<Property> second = propertyRepository.searchSlice(null, null, null, PageRequest.of(1, 1, Sort.by("id")));
+
+        assertEquals(property1.getId(), first.getContent().get(0).getId());
+        assertTrue(first.hasNext());
+        assertEquals(property2.getId(), second.getContent().get(0).getId());
+        assertFalse(second.hasNext());
+        assertEquals(1, second.getNumber());
+    }
+
+    @Test
+    public void testSearchSliceWithFilters() {
+        Slice<Property> properties = propertyRepository.searchSlice("a", 150000.0, null, PageRequest.of(0, 5));
+
+        assertEquals(1, properties.getNumberOfElements());
+        assertFalse(properties.hasNext());
+        assertEquals("Calle 123", properties.getContent().get(0).getAddress());
+    }
+
+    @Test
+    public void testSearchSummaries() {
+        Page<PropertySummary> summaries = propertyRepository.searchSummaries("centro", null, null, PageRequest.of(0, 5));
+
+        assertEquals(1, summaries.getTotalElements());
+        assertEquals(new PropertySummary(property1.getId(), "Calle 123", 100000.0, 150.0), summaries.getContent().get(0));
+    }
+
+    @Test
+    public void testSearchSummarySliceReadsPagesWithoutTotal() {
+        Slice<PropertySummary> first = propertyRepository.searchSummarySlice(null, null, null,
+                PageRequest.of(0, 1, Sort.by("price")));
+        Slice<PropertySummary> second = propertyRepository.searchSummarySlice(null, null, null,
+                PageRequest.of(1, 1, Sort.by("price")));
+
+        assertEquals(property1.getId(), first.getContent().get(0).id());
+        assertTrue(first.hasNext());
+        assertEquals(property2.getId(), second.getContent().get(0).id());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    public void testFindSummariesByIdIn() {
+        List<PropertySummary> summaries = propertyRepository.findSummariesByIdIn(List.of(property2.getId(), -1L));
+
+        assertEquals(List.of(new PropertySummary(property2.getId(), "Avenida 456", 200000.0, 200.0)), summaries);
+    }
+
+    @Test
+    public void testSearchWithAllFilters() {
+        Page<Property> properties = propertyRepository.search("vista", 250000.0, 250.0, PageRequest.of(0, 5));
+
+        assertEquals(1, properties.getTotalElements());
+        assertEquals("Avenida 456", properties.getContent().get(0).getAddress());
+    }
+
     @Test
     public void testFindById() {
         Optional<Property> foundProperty = propertyRepository.findById(property1.getId());
@@ -100,9 +198,28 @@ public class PropertyRepositoryTest {
         newProperty.setDescription("Casa en las afueras");
 
         Property savedProperty = propertyRepository.save(newProperty);
+        entityManager.flush();
 
         assertNotNull(savedProperty.getId());
         assertEquals("Calle 789", savedProperty.getAddress());
+        assertNotNull(savedProperty.getUpdatedAt());
+    }
+
+    @Test
+    public void testUpdateFieldsChecksVersion() {
+        Long version = property1.getVersion();
+
+        Instant updatedAt = Instant.parse("2025-03-01T10:00:00Z");
+
+        int stale = propertyRepository.updateFields(property1.getId(), "Calle 1", 1.0, 1.0, null, version + 1, updatedAt);
+        int updated = propertyRepository.updateFields(property1.getId(), "Calle 1", 1.0, 1.0, null, version, updatedAt);
+
+        assertEquals(0, stale);
+        assertEquals(1, updated);
+        Property reloaded = propertyRepository.findById(property1.getId()).get();
+        assertEquals("Calle 1", reloaded.getAddress());
+        assertEquals(version + 1, reloaded.getVersion());
+        assertEquals(updatedAt, reloaded.getUpdatedAt());
     }
 
     @Test
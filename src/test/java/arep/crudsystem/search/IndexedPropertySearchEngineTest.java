@@ -0,0 +1,126 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
+import arep.crudsystem.pagination.PropertySortKey;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.sharding.PropertyShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IndexedPropertySearchEngineTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private DatabasePropertySearchEngine databaseSearchEngine;
+
+    @Spy
+    private PropertyShards shards = new PropertyShards(new MockEnvironment(), mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private IndexedPropertySearchEngine searchEngine;
+
+    private Property property1;
+    private Property property2;
+
+    @BeforeEach
+    public void setUp() {
+        property1 = property(1L, "Calle 123", 100000.0, "Casa en el centro");
+        property2 = property(2L, "Centro 456", 200000.0, "Apartamento");
+        when(propertyRepository.findAfterId(any(Long.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(property1, property2)));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    public void testSearchLoadsOnlyRequestedPage() {
+        when(propertyRepository.findAllById(List.of(2L))).thenReturn(List.of(property2));
+
+        Page<Property> result = searchEngine.search("centro", null, null, PageRequest.of(0, 1));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(property2), result.getContent());
+    }
+
+    @Test
+    public void testSearchSummariesLoadsOnlyRequestedPage() {
+        PropertySummary summary = new PropertySummary(2L, "Centro 456", 200000.0, 90.0);
+        when(propertyRepository.findSummariesByIdIn(List.of(2L))).thenReturn(List.of(summary));
+
+        Page<PropertySummary> result = searchEngine.searchSummaries("centro", null, null, PageRequest.of(0, 1));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(summary), result.getContent());
+        verify(propertyRepository, never()).findAllById(any());
+    }
+
+    @Test
+    public void testCountMatchesTextQueriesInTheIndex() {
+        assertEquals(2, searchEngine.count("CENTRO", null, null));
+        assertEquals(1, searchEngine.count("centro", 150000.0, null));
+        verifyNoInteractions(databaseSearchEngine);
+    }
+
+    @Test
+    public void testSearchAfterFollowsCursorOrder() {
+        when(propertyRepository.findAllById(List.of(1L))).thenReturn(List.of(property1));
+
+        Slice<Property> result = searchEngine.searchAfter("centro", null, null,
+                PropertyCursor.first(PropertySortKey.PRICE), 1);
+
+        assertEquals(List.of(property1), result.getContent());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    public void testSearchWithoutQueryUsesDatabase() {
+        Pageable pageable = PageRequest.of(0, 5);
+        searchEngine.search(null, 150000.0, null, pageable);
+
+        verify(databaseSearchEngine, times(1)).search(null, 150000.0, null, pageable);
+    }
+
+    @Test
+    public void testIndexFollowsWrites() {
+        searchEngine.propertyDeleted(2L);
+        property1.setAddress("Centro 1");
+        searchEngine.propertySaved(property1);
+        when(propertyRepository.findAllById(List.of(1L))).thenReturn(List.of(property1));
+
+        Page<Property> result = searchEngine.search("centro", null, null, PageRequest.of(0, 5));
+
+        assertEquals(List.of(property1), result.getContent());
+    }
+
+    private static Property property(Long id, String address, Double price, String description) {
+        Property property = new Property();
+        property.setId(id);
+        property.setAddress(address);
+        property.setPrice(price);
+        property.setSize(100.0);
+        property.setDescription(description);
+        return property;
+    }
+}
@@ -0,0 +1,33 @@
+package arep.crudsystem.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PropertyCountCacheTest {
+
+    private final PropertySearchEngine searchEngine = mock(PropertySearchEngine.class);
+    private final PropertyCountCache countCache = new PropertyCountCache(searchEngine, Duration.ofMinutes(1), 100);
+
+    @Test
+    void testCountIsComputedOncePerFilterCombination() {
+        when(searchEngine.count(null, 100.0, null)).thenReturn(7L);
+        when(searchEngine.count(null, null, null)).thenReturn(3L);
+
+        assertEquals(7, countCache.approximateCount(null, 100.0, null));
+        assertEquals(7, countCache.approximateCount(" ", 100.0, Double.NaN));
+        assertEquals(3, countCache.approximateCount(null, null, null));
+        verify(searchEngine, times(2)).count(isNull(), any(), any());
+    }
+
+    @Test
+    void testTextQueriesAreCountedByTheEngine() {
+        when(searchEngine.count("centro", 100.0, null)).thenReturn(7L, 8L);
+
+        assertEquals(7, countCache.approximateCount(" centro ", 100.0, null));
+        assertEquals(8, countCache.approximateCount("centro", 100.0, Double.NaN));
+    }
+}
@@ -0,0 +1,108 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.config.CacheConfig;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.replica.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PropertySearchCacheTest {
+
+    private final CacheManager cacheManager = new CacheConfig().cacheManager(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+
+    @Mock
+    private PropertySearchEngine searchEngine;
+
+    private PropertySearchCache searchCache = new PropertySearchCache(cacheManager, new String[0], Duration.ofSeconds(5));
+
+    private final Pageable pageable = PageRequest.of(0, 5);
+
+    @Test
+    public void testEquivalentSearchesShareEntry() {
+        Page<Property> page = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        when(searchEngine.search(null, 100000.0, null, pageable)).thenReturn(page);
+
+        assertSame(page, searchCache.search(searchEngine, "  ", 100000.0, null, pageable));
+        assertSame(page, searchCache.search(searchEngine, null, 100000.0, Double.POSITIVE_INFINITY, pageable));
+        verify(searchEngine, times(1)).search(null, 100000.0, null, pageable);
+    }
+
+    @Test
+    public void testQueryIsTrimmed() {
+        searchCache.search(searchEngine, " centro ", null, null, pageable);
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+
+        verify(searchEngine, times(1)).search("centro", null, null, pageable);
+    }
+
+    @Test
+    public void testInvalidateForcesNewSearch() {
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+        searchCache.invalidate();
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+
+        verify(searchEngine, times(2)).search("centro", null, null, pageable);
+    }
+
+    @Test
+    public void testPagesAndSlicesOfTheSameSearchAreCachedSeparately() {
+        Page<Property> page = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Slice<Property> slice = new SliceImpl<>(Collections.emptyList(), pageable, false);
+        when(searchEngine.search("centro", null, null, pageable)).thenReturn(page);
+        when(searchEngine.searchSlice("centro", null, null, pageable)).thenReturn(slice);
+
+        assertSame(page, searchCache.search(searchEngine, "centro", null, null, pageable));
+        assertSame(slice, searchCache.searchSlice(searchEngine, "centro", null, null, pageable));
+        assertSame(page, searchCache.search(searchEngine, "centro", null, null, pageable));
+        verify(searchEngine, times(1)).search("centro", null, null, pageable);
+    }
+
+    @Test
+    public void testReplicaReadsAreNotCachedRightAfterAWrite() {
+        searchCache = new PropertySearchCache(cacheManager, new String[]{"jdbc:h2:mem:replica"}, Duration.ofSeconds(5));
+        searchCache.invalidate();
+
+        assertFalse(searchCache.readsAreCurrent());
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+        verify(searchEngine, times(2)).search("centro", null, null, pageable);
+
+        boolean previous = ReplicaRoutingDataSource.pinToPrimary(true);
+        try {
+            // Read from the primary, cached and then also served to reads from the replicas
+            assertTrue(searchCache.readsAreCurrent());
+            searchCache.search(searchEngine, "centro", null, null, pageable);
+        } finally {
+            ReplicaRoutingDataSource.pinToPrimary(previous);
+        }
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+        verify(searchEngine, times(3)).search("centro", null, null, pageable);
+    }
+
+    @Test
+    public void testReplicaReadsAreCachedOnceTheWindowHasPassed() {
+        searchCache = new PropertySearchCache(cacheManager, new String[]{"jdbc:h2:mem:replica"}, Duration.ZERO);
+        searchCache.invalidate();
+
+        assertTrue(searchCache.readsAreCurrent());
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+        searchCache.search(searchEngine, "centro", null, null, pageable);
+        verify(searchEngine, times(1)).search("centro", null, null, pageable);
+    }
+}
@@ -0,0 +1,66 @@
+package arep.crudsystem.search;
+
+import arep.crudsystem.model.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertyTextIndexTest {
+
+    private PropertyTextIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new PropertyTextIndex();
+        index.put(property(1L, "Calle 123", 100000.0, 150.0, "Casa en el centro"));
+        index.put(property(2L, "Avenida 456", 200000.0, 200.0, "Apartamento con vista al mar"));
+        index.put(property(3L, "Centro Comercial 7", 300000.0, 80.0, null));
+    }
+
+    @Test
+    public void testSearchRanksAddressMatchesFirst() {
+        List<PropertyTextIndex.Match> matches = index.search("CENTRO", null, null);
+
+        assertEquals(List.of(3L, 1L), matches.stream().map(PropertyTextIndex.Match::id).toList());
+    }
+
+    @Test
+    public void testSearchAppliesFilters() {
+        List<PropertyTextIndex.Match> matches = index.search("centro", 150000.0, null);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).id());
+    }
+
+    @Test
+    public void testSearchShortQuery() {
+        List<PropertyTextIndex.Match> matches = index.search("45", null, null);
+
+        assertEquals(1, matches.size());
+        assertEquals(2L, matches.get(0).id());
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveDeletes() {
+        index.put(property(1L, "Calle 999", 100000.0, 150.0, "Casa en las afueras"));
+        assertTrue(index.search("centro", null, null).stream().noneMatch(match -> match.id() == 1L));
+        assertEquals(1, index.search("afueras", null, null).size());
+
+        index.remove(2L);
+        assertTrue(index.search("avenida", null, null).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    private static Property property(Long id, String address, Double price, Double size, String description) {
+        Property property = new Property();
+        property.setId(id);
+        property.setAddress(address);
+        property.setPrice(price);
+        property.setSize(size);
+        property.setDescription(description);
+        return property;
+    }
+}
@@ -0,0 +1,47 @@
+package arep.crudsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Login throttling behind a reverse proxy: the test client connects from loopback, a trusted proxy address,
+ * so each X-Forwarded-For client gets its own per-IP bucket.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.ssl.enabled=false",
+                "auth.rate-limit.ip-capacity=2",
+                "auth.rate-limit.ip-per-minute=1",
+                "auth.rate-limit.user-capacity=100"})
+class LoginClientAddressTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testForwardedClientsAreThrottledSeparately() throws Exception {
+        assertNotEquals(429, login("203.0.113.1"));
+        assertNotEquals(429, login("203.0.113.1"));
+        assertEquals(429, login("203.0.113.1"));
+
+        assertNotEquals(429, login("203.0.113.2"));
+    }
+
+    private int login(String clientAddress) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/auth/login?username=testuser&password=wrong"))
+                .header("X-Forwarded-For", clientAddress)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,59 @@
+package arep.crudsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LoginRateLimitFilterTest {
+
+    private final LoginRateLimiter rateLimiter = mock(LoginRateLimiter.class);
+    private final LoginRateLimitFilter filter = new LoginRateLimitFilter(rateLimiter);
+
+    @Test
+    void testRejectedLoginGetsTooManyRequests() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setParameter("username", "testuser");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(rateLimiter.tryAcquire("testuser", "10.0.0.1")).thenReturn(30L);
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("30", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testAdmittedLoginContinues() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setParameter("username", "testuser");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(rateLimiter.tryAcquire(anyString(), anyString())).thenReturn(0L);
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void testOtherRequestsAreNotThrottled() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/properties");
+        request.setServletPath("/api/properties");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(rateLimiter);
+    }
+}
@@ -0,0 +1,51 @@
+package arep.crudsystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    @Test
+    void testUserBucketRejectsAfterCapacity() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1000, 100, 60, 3, 1, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("testuser", "10.0.0." + i));
+        }
+        assertTrue(limiter.tryAcquire("testuser", "10.0.0.9") > 0);
+        assertEquals(0, limiter.tryAcquire("otheruser", "10.0.0.9"));
+    }
+
+    @Test
+    void testIpBucketRejectsAfterCapacity() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1000, 2, 1, 100, 60, 1000);
+
+        assertEquals(0, limiter.tryAcquire("user1", "10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("user2", "10.0.0.1"));
+        long retryAfter = limiter.tryAcquire("user3", "10.0.0.1");
+
+        assertTrue(retryAfter > 0);
+        assertEquals(0, limiter.tryAcquire("user3", "10.0.0.2"));
+    }
+
+    @Test
+    void testRejectedAttemptsDoNotChargeGlobalBucket() {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 1, 1, 100, 60, 1000);
+
+        assertEquals(0, limiter.tryAcquire("user1", "10.0.0.1"));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("user1", "10.0.0.1") > 0);
+        }
+        assertEquals(0, limiter.tryAcquire("user2", "10.0.0.2"));
+    }
+
+    @Test
+    void testGlobalBucketCapsAllAttempts() {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 100, 60, 100, 60, 1000);
+
+        assertEquals(0, limiter.tryAcquire("user1", "10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("user2", "10.0.0.2"));
+        assertTrue(limiter.tryAcquire("user3", "10.0.0.3") > 0);
+    }
+}
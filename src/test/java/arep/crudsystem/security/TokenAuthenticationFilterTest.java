@@ -0,0 +1,58 @@
+package arep.crudsystem.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenAuthenticationFilterTest {
+
+    private final TokenService tokenService =
+            new TokenService(Base64.getEncoder().encodeToString(new byte[32]), Duration.ofHours(1));
+    private final TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokenService);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testValidTokenAuthenticatesRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/properties");
+        request.addHeader("Authorization", "Bearer " + tokenService.issue("testuser"));
+
+        Authentication authentication = filterAndCapture(request);
+
+        assertNotNull(authentication);
+        assertTrue(authentication.isAuthenticated());
+        assertEquals("testuser", authentication.getName());
+    }
+
+    @Test
+    void testInvalidTokenLeavesRequestAnonymous() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/properties");
+        request.addHeader("Authorization", "Bearer not-a-token");
+
+        assertNull(filterAndCapture(request));
+    }
+
+    @Test
+    void testMissingHeaderLeavesRequestAnonymous() throws Exception {
+        assertNull(filterAndCapture(new MockHttpServletRequest("GET", "/api/properties")));
+    }
+
+    private Authentication filterAndCapture(MockHttpServletRequest request) throws Exception {
+        AtomicReference<Authentication> captured = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> captured.set(SecurityContextHolder.getContext().getAuthentication()));
+        return captured.get();
+    }
+}
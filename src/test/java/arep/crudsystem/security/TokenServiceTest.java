@@ -0,0 +1,76 @@
+package arep.crudsystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final TokenService tokenService = new TokenService(SECRET, Duration.ofHours(1));
+
+    @Test
+    void testIssuedTokenVerifies() {
+        String token = tokenService.issue("testuser");
+
+        assertEquals(3, token.split("\\.").length);
+        assertEquals(Optional.of("testuser"), tokenService.verify(token));
+    }
+
+    @Test
+    void testTokenFromAnotherInstanceWithSameSecretVerifies() {
+        String token = tokenService.issue("testuser");
+
+        assertEquals(Optional.of("testuser"), new TokenService(SECRET, Duration.ofHours(1)).verify(token));
+    }
+
+    @Test
+    void testTamperedPayloadIsRejected() {
+        String[] parts = tokenService.issue("testuser").split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(tokenService.verify(parts[0] + "." + forged + "." + parts[2]).isEmpty());
+    }
+
+    @Test
+    void testTokenSignedWithOtherSecretIsRejected() {
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        TokenService other = new TokenService(Base64.getEncoder().encodeToString(otherKey), Duration.ofHours(1));
+
+        assertTrue(tokenService.verify(other.issue("testuser")).isEmpty());
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        String token = tokenService.issue("testuser");
+        tokenService.setClock(Clock.fixed(Instant.now().plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        assertTrue(tokenService.verify(token).isEmpty());
+    }
+
+    @Test
+    void testMalformedTokensAreRejected() {
+        assertTrue(tokenService.verify("").isEmpty());
+        assertTrue(tokenService.verify("a.b").isEmpty());
+        assertTrue(tokenService.verify("a.b.c").isEmpty());
+        assertTrue(tokenService.verify(tokenService.issue("testuser") + "x!").isEmpty());
+    }
+
+    @Test
+    void testShortSecretIsRejected() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class, () -> new TokenService(shortSecret, Duration.ofHours(1)));
+    }
+}
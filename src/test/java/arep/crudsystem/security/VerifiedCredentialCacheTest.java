@@ -0,0 +1,41 @@
+package arep.crudsystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedCredentialCacheTest {
+
+    private final VerifiedCredentialCache cache = new VerifiedCredentialCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void testVerifiedCredentialsAreRemembered() {
+        cache.markVerified("testuser", "password", "hash1");
+
+        assertTrue(cache.isVerified("testuser", "password", "hash1"));
+    }
+
+    @Test
+    void testDifferentPasswordIsNotVerified() {
+        cache.markVerified("testuser", "password", "hash1");
+
+        assertFalse(cache.isVerified("testuser", "wrong", "hash1"));
+        assertFalse(cache.isVerified("otheruser", "password", "hash1"));
+    }
+
+    @Test
+    void testPasswordChangeInvalidatesEntry() {
+        cache.markVerified("testuser", "password", "hash1");
+
+        assertFalse(cache.isVerified("testuser", "password", "hash2"));
+    }
+
+    @Test
+    void testUsernamePasswordBoundaryIsUnambiguous() {
+        cache.markVerified("ab", "c", "hash1");
+
+        assertFalse(cache.isVerified("a", "bc", "hash1"));
+    }
+}
@@ -0,0 +1,173 @@
+package arep.crudsystem.service;
+
+import arep.crudsystem.event.PropertyChangeEvent;
+import arep.crudsystem.event.PropertyOutbox;
+import arep.crudsystem.event.PropertyOutboxDispatcher;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertyOutboxEntry;
+import arep.crudsystem.repository.PropertyOutboxRepository;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.search.PropertySearchCache;
+import arep.crudsystem.sharding.PropertyShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({PropertyBatchService.class, PropertyOutbox.class, PropertyShards.class})
+@TestPropertySource(properties = "property.batch.chunk-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PropertyBatchServiceTest {
+
+    @Autowired
+    private PropertyBatchService propertyBatchService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyOutboxRepository outboxRepository;
+
+    @MockitoBean
+    private PropertyOutboxDispatcher dispatcher;
+
+    @MockitoBean
+    private PropertySearchCache searchCache;
+
+    @AfterEach
+    public void tearDown() {
+        propertyRepository.deleteAll();
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    public void testCreatePropertiesReportsInvalidItems() {
+        List<Property> properties = List.of(
+                property("Calle 1", 100000.0),
+                property("Calle 2", null),
+                property("Calle 3", 300000.0),
+                property("Calle 4", 400000.0),
+                property("Calle 5", 500000.0));
+
+        BatchResult result = propertyBatchService.createProperties(properties.iterator());
+
+        assertEquals(4, result.succeeded());
+        assertEquals(1, result.failed());
+        assertEquals(BatchItemResult.Status.FAILED, result.items().get(1).status());
+        assertEquals(BatchItemResult.Status.CREATED, result.items().get(4).status());
+        assertNotNull(result.items().get(4).id());
+        assertEquals(4, propertyRepository.count());
+        assertEquals(List.of(PropertyChangeEvent.Type.CREATED), outboxTypes(4));
+        verify(dispatcher, atLeastOnce()).wakeUp();
+        verify(searchCache, times(1)).invalidate();
+    }
+
+    @Test
+    public void testCreatePropertiesIsolatesFailingItemInChunk() {
+        List<Property> properties = List.of(
+                property("Calle 1", 100000.0),
+                property("x".repeat(300), 200000.0),
+                property("Calle 3", 300000.0));
+
+        BatchResult result = propertyBatchService.createProperties(properties.iterator());
+
+        assertEquals(2, result.succeeded());
+        assertEquals(BatchItemResult.Status.FAILED, result.items().get(1).status());
+        assertEquals(2, propertyRepository.count());
+        assertEquals(List.of(PropertyChangeEvent.Type.CREATED), outboxTypes(2));
+    }
+
+    @Test
+    public void testCreatePropertiesReportsUnreadableItems() {
+        Iterator<Property> items = new Iterator<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < 2;
+            }
+
+            @Override
+            public Property next() {
+                if (position++ == 0) {
+                    throw new IllegalArgumentException("Invalid JSON on line 1");
+                }
+                return property("Calle 2", 200000.0);
+            }
+        };
+
+        BatchResult result = propertyBatchService.createProperties(items);
+
+        assertEquals("Invalid JSON on line 1", result.items().get(0).error());
+        assertEquals(BatchItemResult.Status.CREATED, result.items().get(1).status());
+    }
+
+    @Test
+    public void testUpdateProperties() {
+        Property existing = propertyRepository.save(property("Calle 1", 100000.0));
+        Property changed = property("Calle 1 actualizada", 150000.0);
+        changed.setId(existing.getId());
+        changed.setVersion(existing.getVersion());
+        Property missing = property("Calle 9", 900000.0);
+        missing.setId(existing.getId() + 1000);
+        missing.setVersion(0L);
+        Property unversioned = property("Calle 1 sin version", 160000.0);
+        unversioned.setId(existing.getId());
+
+        BatchResult result = propertyBatchService.updateProperties(List.of(changed, missing, unversioned));
+
+        assertEquals(1, result.succeeded());
+        assertEquals("Propiedad no encontrada", result.items().get(1).error());
+        assertEquals("version is required", result.items().get(2).error());
+        assertEquals("Calle 1 actualizada", propertyRepository.findById(existing.getId()).get().getAddress());
+        assertEquals(List.of(PropertyChangeEvent.Type.UPDATED), outboxTypes(1));
+    }
+
+    @Test
+    public void testDeleteProperties() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(propertyRepository.save(property("Calle " + i, 100000.0)).getId());
+        }
+        ids.add(1, -1L);
+
+        BatchResult result = propertyBatchService.deleteProperties(ids);
+
+        assertEquals(3, result.succeeded());
+        assertEquals(BatchItemResult.Status.FAILED, result.items().get(1).status());
+        assertEquals(0, propertyRepository.count());
+        assertEquals(List.of(PropertyChangeEvent.Type.DELETED), outboxTypes(3));
+    }
+
+    /**
+     * Asserts the number of outbox entries and returns their distinct types.
+     */
+    private List<PropertyChangeEvent.Type> outboxTypes(int expectedEntries) {
+        List<PropertyOutboxEntry> entries = outboxRepository.findAll();
+        assertEquals(expectedEntries, entries.size());
+        return entries.stream().map(PropertyOutboxEntry::getType).distinct().toList();
+    }
+
+    private static Property property(String address, Double price) {
+        Property property = new Property();
+        property.setAddress(address);
+        property.setPrice(price);
+        property.setSize(100.0);
+        return property;
+    }
+}
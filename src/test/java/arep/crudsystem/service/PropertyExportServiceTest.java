@@ -0,0 +1,72 @@
+package arep.crudsystem.service;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.sharding.PropertyShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({PropertyExportService.class, PropertyShards.class, JacksonAutoConfiguration.class})
+public class PropertyExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PropertyExportService propertyExportService;
+
+    private Property property1;
+
+    @BeforeEach
+    public void setUp() {
+        property1 = new Property();
+        property1.setAddress("Calle 123");
+        property1.setPrice(100000.0);
+        property1.setSize(150.0);
+        property1.setDescription("Casa, \"grande\"");
+        entityManager.persist(property1);
+
+        Property property2 = new Property();
+        property2.setAddress("Avenida 456");
+        property2.setPrice(200000.0);
+        property2.setSize(200.0);
+        entityManager.persist(property2);
+
+        entityManager.flush();
+    }
+
+    @Test
+    public void testExportNdjson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = propertyExportService.exportProperties(output, ExportFormat.NDJSON);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"address\":\"Calle 123\""));
+        assertTrue(lines[1].contains("\"address\":\"Avenida 456\""));
+    }
+
+    @Test
+    public void testExportCsv() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        propertyExportService.exportProperties(output, ExportFormat.CSV);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,address,price,size,description", lines[0]);
+        assertEquals(property1.getId() + ",Calle 123,100000.0,150.0,\"Casa, \"\"grande\"\"\"", lines[1]);
+        assertTrue(lines[2].endsWith(",Avenida 456,200000.0,200.0,"));
+    }
+}
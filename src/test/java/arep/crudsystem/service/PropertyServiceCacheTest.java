@@ -0,0 +1,119 @@
+package arep.crudsystem.service;
+
+import arep.crudsystem.config.CacheConfig;
+import arep.crudsystem.event.PropertyOutbox;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.search.PropertyCountCache;
+import arep.crudsystem.search.PropertySearchCache;
+import arep.crudsystem.search.PropertySearchEngine;
+import arep.crudsystem.sharding.PropertyShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {CacheConfig.class, PropertyService.class, PropertyShards.class})
+public class PropertyServiceCacheTest {
+
+    @MockitoBean
+    private PropertyRepository propertyRepository;
+
+    @MockitoBean
+    private PropertySearchEngine searchEngine;
+
+    @MockitoBean(name = "propertySearchCache")
+    private PropertySearchCache searchCache;
+
+    @MockitoBean
+    private PropertyCountCache countCache;
+
+    @MockitoBean
+    private PropertyOutbox outbox;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Property property;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).clear();
+        property = new Property();
+        property.setId(1L);
+        property.setAddress("Calle 123");
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(searchCache.readsAreCurrent()).thenReturn(true);
+    }
+
+    @Test
+    public void testGetPropertyByIdIsCached() {
+        propertyService.getPropertyById(1L);
+        Optional<Property> result = propertyService.getPropertyById(1L);
+
+        assertEquals("Calle 123", result.get().getAddress());
+        verify(propertyRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testMissingPropertyIsNotCached() {
+        when(propertyRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(propertyService.getPropertyById(2L).isPresent());
+        assertFalse(propertyService.getPropertyById(2L).isPresent());
+        verify(propertyRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    public void testPropertyReadFromALaggingReplicaIsNotCached() {
+        when(searchCache.readsAreCurrent()).thenReturn(false);
+
+        propertyService.getPropertyById(1L);
+        propertyService.getPropertyById(1L);
+
+        verify(propertyRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testUpdateEvictsEntry() {
+        property.setVersion(0L);
+        when(propertyRepository.updateFields(eq(1L), eq("Calle 123"), isNull(), isNull(), isNull(), eq(0L),
+                any(Instant.class))).thenReturn(1);
+        propertyService.getPropertyById(1L);
+
+        propertyService.updateProperty(1L, property);
+        propertyService.getPropertyById(1L);
+
+        // One lookup for the first read and one after eviction
+        verify(propertyRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testDeleteEvictsOnlyThatEntry() {
+        Property other = new Property();
+        other.setId(2L);
+        when(propertyRepository.findById(2L)).thenReturn(Optional.of(other));
+        propertyService.getPropertyById(1L);
+        propertyService.getPropertyById(2L);
+
+        propertyService.deleteProperty(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).get(1L));
+        assertNotNull(cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).get(2L));
+    }
+}
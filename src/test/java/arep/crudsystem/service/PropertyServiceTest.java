@@ -1,18 +1,35 @@
 package arep.crudsystem.service;
 
+import arep.crudsystem.event.PropertyChangeEvent;
+import arep.crudsystem.event.PropertyOutbox;
 import arep.crudsystem.model.Property;
+import arep.crudsystem.model.PropertySummary;
+import arep.crudsystem.pagination.PropertyCursor;
+import arep.crudsystem.pagination.PropertySortKey;
 import arep.crudsystem.repository.PropertyRepository;
+import arep.crudsystem.search.PropertyCountCache;
+import arep.crudsystem.search.PropertySearchCache;
+import arep.crudsystem.search.PropertySearchEngine;
+import arep.crudsystem.sharding.PropertyShards;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +42,21 @@ public class PropertyServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private PropertySearchEngine searchEngine;
+
+    @Mock
+    private PropertySearchCache searchCache;
+
+    @Mock
+    private PropertyCountCache countCache;
+
+    @Mock
+    private PropertyOutbox outbox;
+
+    @Spy
+    private PropertyShards shards = new PropertyShards(new MockEnvironment(), mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private PropertyService propertyService;
 
@@ -36,11 +68,14 @@ public class PropertyServiceTest {
         property.setSize(150.0);
         property.setDescription("Casa nueva");
 
-        when(propertyRepository.save(any(Property.class))).thenReturn(property);
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenReturn(property);
 
         Property savedProperty = propertyService.createProperty(property);
         assertNotNull(savedProperty);
         assertEquals("Calle 123", savedProperty.getAddress());
+        verify(outbox).record(PropertyChangeEvent.Type.CREATED, savedProperty.getId());
+        verify(searchCache, times(1)).invalidate();
+        verify(searchEngine, never()).propertySaved(any(Property.class));
     }
 
     @Test
@@ -54,6 +89,82 @@ public class PropertyServiceTest {
         assertEquals(0, result.getTotalElements());
     }
 
+    @Test
+    public void testSearchPropertiesGoesThroughSearchCache() {
+        Pageable pageable = PageRequest.of(0, 5);
+        Page<Property> properties = new PageImpl<>(Collections.emptyList(), pageable, 0);
+
+        when(searchCache.search(searchEngine, "centro", 150000.0, null, pageable)).thenReturn(properties);
+
+        Page<Property> result = propertyService.searchProperties("centro", 150000.0, null, 0, 5);
+        assertSame(properties, result);
+    }
+
+    @Test
+    public void testSearchPropertiesSliceGoesThroughSearchCache() {
+        Pageable pageable = PageRequest.of(1, 5);
+        Slice<Property> properties = new SliceImpl<>(Collections.emptyList(), pageable, false);
+
+        when(searchCache.searchSlice(searchEngine, null, 150000.0, null, pageable)).thenReturn(properties);
+
+        Slice<Property> result = propertyService.searchPropertiesSlice(null, 150000.0, null, 1, 5);
+        assertSame(properties, result);
+        verify(searchCache, never()).search(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testSearchPropertiesWithApproximateTotalUsesCachedCount() {
+        Pageable pageable = PageRequest.of(0, 2);
+        Property property = new Property();
+        when(searchCache.searchSlice(searchEngine, "centro", null, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(property, property), pageable, true));
+        when(countCache.approximateCount("centro", null, null)).thenReturn(40L);
+
+        Page<Property> result = propertyService.searchPropertiesWithApproximateTotal("centro", null, null, 0, 2);
+        assertEquals(40, result.getTotalElements());
+        assertEquals(20, result.getTotalPages());
+    }
+
+    @Test
+    public void testSearchPropertiesWithApproximateTotalCorrectsStaleCount() {
+        Pageable pageable = PageRequest.of(1, 2);
+        Property property = new Property();
+        when(searchCache.searchSlice(searchEngine, null, null, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(property, property), pageable, true));
+        when(countCache.approximateCount(null, null, null)).thenReturn(1L);
+
+        Page<Property> result = propertyService.searchPropertiesWithApproximateTotal(null, null, null, 1, 2);
+        assertEquals(5, result.getTotalElements());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    public void testSearchPropertySummariesWithApproximateTotal() {
+        Pageable pageable = PageRequest.of(0, 1);
+        PropertySummary summary = new PropertySummary(1L, "Calle 123", 100000.0, 80.0);
+        when(searchCache.searchSummarySlice(searchEngine, null, 150000.0, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(summary), pageable, false));
+        when(countCache.approximateCount(null, 150000.0, null)).thenReturn(3L);
+
+        Page<PropertySummary> result = propertyService.searchPropertySummariesWithApproximateTotal(
+                null, 150000.0, null, 0, 1);
+        assertEquals(List.of(summary), result.getContent());
+        assertEquals(3, result.getTotalElements());
+        verify(searchCache, never()).searchSlice(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testGetPropertiesAfterPrice() {
+        Pageable pageable = PageRequest.of(0, 5);
+        Slice<Property> properties = new SliceImpl<>(Collections.emptyList(), pageable, false);
+
+        when(propertyRepository.findAfterPrice(-Double.MAX_VALUE, Long.MIN_VALUE, pageable)).thenReturn(properties);
+
+        Slice<Property> result = propertyService.getPropertiesAfter(PropertyCursor.first(PropertySortKey.PRICE), 5);
+        assertFalse(result.hasNext());
+        verify(propertyRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     public void testGetPropertyById() {
         Property property = new Property();
@@ -69,18 +180,60 @@ public class PropertyServiceTest {
 
     @Test
     public void testUpdateProperty() {
-        Property property = new Property();
-        property.setId(1L);
-        property.setAddress("Calle 123");
-
         Property updatedProperty = new Property();
         updatedProperty.setAddress("Calle 456");
+        updatedProperty.setVersion(3L);
 
-        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
-        when(propertyRepository.save(any(Property.class))).thenReturn(updatedProperty);
+        when(propertyRepository.updateFields(eq(1L), eq("Calle 456"), isNull(), isNull(), isNull(), eq(3L),
+                any(Instant.class))).thenReturn(1);
 
         Property result = propertyService.updateProperty(1L, updatedProperty);
         assertEquals("Calle 456", result.getAddress());
+        assertEquals(1L, result.getId());
+        assertEquals(4L, result.getVersion());
+        assertNotNull(result.getUpdatedAt());
+        verify(propertyRepository, never()).findById(any(Long.class));
+        verify(propertyRepository, never()).saveAndFlush(any(Property.class));
+        verify(outbox).record(PropertyChangeEvent.Type.UPDATED, 1L);
+    }
+
+    @Test
+    public void testUpdatePropertyWithoutVersion() {
+        Property updatedProperty = new Property();
+        updatedProperty.setAddress("Calle 456");
+
+        assertThrows(IllegalArgumentException.class, () -> propertyService.updateProperty(1L, updatedProperty));
+        verify(propertyRepository, never()).updateFields(any(), any(), any(), any(), any(), any(), any());
+        verify(outbox, never()).record(any(), any());
+    }
+
+    @Test
+    public void testUpdatePropertyConflict() {
+        Property updatedProperty = new Property();
+        updatedProperty.setVersion(1L);
+
+        when(propertyRepository.updateFields(eq(1L), isNull(), isNull(), isNull(), isNull(), eq(1L),
+                any(Instant.class))).thenReturn(0);
+        when(propertyRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> propertyService.updateProperty(1L, updatedProperty));
+        verify(searchCache, never()).invalidate();
+        verify(outbox, never()).record(any(), any());
+    }
+
+    @Test
+    public void testUpdatePropertyNotFound() {
+        Property updatedProperty = new Property();
+        updatedProperty.setVersion(0L);
+
+        when(propertyRepository.updateFields(eq(1L), isNull(), isNull(), isNull(), isNull(), eq(0L),
+                any(Instant.class))).thenReturn(0);
+        when(propertyRepository.existsById(1L)).thenReturn(false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> propertyService.updateProperty(1L, updatedProperty));
+        assertEquals("Propiedad no encontrada", exception.getMessage());
     }
 
     @Test
@@ -88,5 +241,7 @@ public class PropertyServiceTest {
         doNothing().when(propertyRepository).deleteById(1L);
         propertyService.deleteProperty(1L);
         verify(propertyRepository, times(1)).deleteById(1L);
+        verify(outbox).record(PropertyChangeEvent.Type.DELETED, 1L);
+        verify(searchCache, times(1)).invalidate();
     }
 }
@@ -2,11 +2,15 @@ package arep.crudsystem.service;
 
 import arep.crudsystem.model.User;
 import arep.crudsystem.repository.UserRepository;
+import arep.crudsystem.security.VerifiedCredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -23,6 +27,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private VerifiedCredentialCache verifiedCredentialCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private UserService userService;
 
@@ -90,6 +100,26 @@ class UserServiceTest {
         assertTrue(isAuthenticated);
         verify(userRepository, times(1)).findByUsername("testuser");
         verify(passwordEncoder, times(1)).matches("password", "encodedPassword");
+        verify(verifiedCredentialCache, times(1)).markVerified("testuser", "password", "encodedPassword");
+        assertEquals(1, meterRegistry.timer("auth.bcrypt.verify", "outcome", "match").count());
+    }
+
+    @Test
+    void testAuthenticateSkipsBCryptForRecentlyVerifiedCredentials() {
+        // Arrange
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword("encodedPassword");
+
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(verifiedCredentialCache.isVerified("testuser", "password", "encodedPassword")).thenReturn(true);
+
+        // Act
+        boolean isAuthenticated = userService.authenticate("testuser", "password");
+
+        // Assert
+        assertTrue(isAuthenticated);
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
     }
 
     @Test
@@ -124,5 +154,6 @@ class UserServiceTest {
         assertFalse(isAuthenticated);
         verify(userRepository, times(1)).findByUsername("testuser");
         verify(passwordEncoder, times(1)).matches("password", "encodedPassword");
+        verify(verifiedCredentialCache, never()).markVerified(anyString(), anyString(), anyString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package arep.crudsystem.sharding;
+
+import arep.crudsystem.event.PropertyOutboxDispatcher;
+import arep.crudsystem.model.Property;
+import arep.crudsystem.pagination.PropertyCursor;
+import arep.crudsystem.pagination.PropertySortKey;
+import arep.crudsystem.service.BatchResult;
+import arep.crudsystem.service.ExportFormat;
+import arep.crudsystem.service.PropertyBatchService;
+import arep.crudsystem.service.PropertyExportService;
+import arep.crudsystem.service.PropertyService;
+import arep.crudsystem.sql.SqlRequestContext;
+import arep.crudsystem.sql.SqlRequestStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three in-memory H2 databases hold the shards of the properties table; the first one is the primary.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.ssl.enabled=false",
+                "spring.jpa.open-in-view=false",
+                "spring.datasource.url=jdbc:h2:mem:sharding-shard-0",
+                "datasource.shards.urls=jdbc:h2:mem:sharding-shard-1,jdbc:h2:mem:sharding-shard-2"})
+class PropertyShardingTest {
+
+    private static final int PROPERTIES = 60;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyBatchService batchService;
+
+    @Autowired
+    private PropertyExportService exportService;
+
+    @Autowired
+    private PropertyOutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private PropertyShards shards;
+
+    private final List<JdbcTemplate> shardTemplates = IntStream.range(0, 3)
+            .mapToObj(shard -> new JdbcTemplate(
+                    new DriverManagerDataSource("jdbc:h2:mem:sharding-shard-" + shard, "sa", "")))
+            .toList();
+
+    private List<Property> properties;
+
+    @BeforeEach
+    void createProperties() {
+        for (JdbcTemplate shard : shardTemplates) {
+            shard.queryForList("SELECT id FROM properties", Long.class).forEach(propertyService::deleteProperty);
+        }
+        properties = new ArrayList<>();
+        for (int i = 0; i < PROPERTIES; i++) {
+            Property property = new Property();
+            property.setAddress("Calle " + i);
+            property.setPrice(1000.0 + (i % 10) * 100);
+            property.setSize(50.0 + i);
+            property.setDescription(i % 3 == 0 ? "Casa con jardin" : "Apartamento");
+            properties.add(propertyService.createProperty(property));
+        }
+        properties.sort(Comparator.comparing(Property::getId));
+        outboxDispatcher.drain();
+    }
+
+    @Test
+    void testPropertiesAreStoredOnTheShardOwningTheirId() {
+        assertEquals(3, shards.getCount());
+        int total = 0;
+        for (int shard = 0; shard < shardTemplates.size(); shard++) {
+            List<Long> ids = shardTemplates.get(shard).queryForList("SELECT id FROM properties", Long.class);
+            assertFalse(ids.isEmpty(), "Shard " + shard + " holds no properties");
+            for (Long id : ids) {
+                assertEquals(shard, shards.shardOf(id));
+            }
+            total += ids.size();
+        }
+        assertEquals(PROPERTIES, total);
+        for (Property property : properties) {
+            assertEquals(property.getAddress(), propertyService.getPropertyById(property.getId()).get().getAddress());
+        }
+    }
+
+    @Test
+    void testListingsMergeEveryShardInIdOrder() {
+        Page<Property> page = propertyService.getAllProperties(2, 7);
+
+        assertEquals(PROPERTIES, page.getTotalElements());
+        assertEquals(ids(properties.subList(14, 21)), ids(page.getContent()));
+
+        List<Property> cheap = properties.stream().filter(property -> property.getPrice() <= 1200).toList();
+        Page<Property> search = propertyService.searchProperties(null, 1200.0, null, 1, 5);
+        assertEquals(cheap.size(), search.getTotalElements());
+        assertEquals(ids(cheap.subList(5, 10)), ids(search.getContent()));
+
+        Slice<Property> slice = propertyService.searchPropertiesSlice(null, 1200.0, null, 3, 5);
+        assertEquals(ids(cheap.subList(15, 18)), ids(slice.getContent()));
+        assertFalse(slice.hasNext());
+    }
+
+    @Test
+    void testCursorPagesFollowTheSortKeyAcrossShards() {
+        List<Property> expected = properties.stream().sorted(PropertySortKey.PRICE.order()).toList();
+        List<Property> read = new ArrayList<>();
+        PropertyCursor cursor = PropertyCursor.first(PropertySortKey.PRICE);
+        Slice<Property> slice;
+        do {
+            slice = propertyService.getPropertiesAfter(cursor, 8);
+            read.addAll(slice.getContent());
+            if (slice.hasContent()) {
+                cursor = PropertyCursor.after(PropertySortKey.PRICE, slice.getContent().get(slice.getNumberOfElements() - 1));
+            }
+        } while (slice.hasNext());
+
+        assertEquals(ids(expected), ids(read));
+    }
+
+    @Test
+    void testTextSearchLoadsMatchesFromEveryShard() {
+        Page<Property> result = propertyService.searchProperties("jardin", null, null, 0, 100);
+
+        assertEquals(PROPERTIES / 3, result.getTotalElements());
+        assertEquals(PROPERTIES / 3, result.getNumberOfElements());
+    }
+
+    @Test
+    void testFannedOutStatementsAreAccountedToTheRequest() {
+        SqlRequestStatistics statistics = SqlRequestContext.begin(50);
+        try {
+            propertyService.searchPropertiesSlice(null, 1100.0, null, 0, 5);
+        } finally {
+            SqlRequestContext.clear();
+        }
+
+        // One page query per shard, each on a fan-out thread
+        assertTrue(statistics.getCount() >= 3, "Accounted statements: " + statistics.getStatements());
+    }
+
+    @Test
+    void testWritesGoToTheOwningShard() throws Exception {
+        Property first = properties.get(0);
+        Property details = new Property();
+        details.setAddress("Calle nueva");
+        details.setPrice(5000.0);
+        details.setSize(80.0);
+        details.setVersion(first.getVersion());
+        propertyService.updateProperty(first.getId(), details);
+        propertyService.deleteProperty(properties.get(1).getId());
+
+        JdbcTemplate owner = shardTemplates.get(shards.shardOf(first.getId()));
+        assertEquals("Calle nueva",
+                owner.queryForObject("SELECT address FROM properties WHERE id = ?", String.class, first.getId()));
+        assertTrue(propertyService.getPropertyById(properties.get(1).getId()).isEmpty());
+
+        List<Property> batch = IntStream.range(0, 30).mapToObj(i -> {
+            Property property = new Property();
+            property.setAddress("Lote " + i);
+            property.setPrice(2000.0);
+            property.setSize(60.0);
+            return property;
+        }).toList();
+        BatchResult created = batchService.createProperties(batch.iterator());
+        assertEquals(30, created.succeeded());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(PROPERTIES - 1 + 30, exportService.exportProperties(output, ExportFormat.CSV));
+        outboxDispatcher.drain();
+        for (JdbcTemplate shard : shardTemplates) {
+            // Entries stay for the retention, each on the shard of its property
+            for (Long propertyId : shard.queryForList("SELECT property_id FROM property_outbox", Long.class)) {
+                assertEquals(shardTemplates.indexOf(shard), shards.shardOf(propertyId));
+            }
+        }
+    }
+
+    private static List<Long> ids(List<Property> properties) {
+        return properties.stream().map(Property::getId).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package arep.crudsystem.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PropertyShardsTest {
+
+    @Test
+    public void testMergeReturnsRequestedWindowOfSortedRuns() {
+        List<List<Integer>> runs = List.of(List.of(1, 4, 7, 10), List.of(2, 5, 8), List.of(), List.of(3, 6, 9));
+
+        assertEquals(List.of(1, 2, 3, 4), PropertyShards.merge(runs, Comparator.naturalOrder(), 0, 4));
+        assertEquals(List.of(5, 6, 7, 8), PropertyShards.merge(runs, Comparator.naturalOrder(), 4, 4));
+        assertEquals(List.of(9, 10), PropertyShards.merge(runs, Comparator.naturalOrder(), 8, 4));
+        assertEquals(List.of(), PropertyShards.merge(runs, Comparator.naturalOrder(), 12, 4));
+    }
+
+    @Test
+    public void testIdsSpreadEvenlyOverShards() {
+        PropertyShards shards = shards("jdbc:h2:mem:a,jdbc:h2:mem:b,jdbc:h2:mem:c");
+        int[] counts = new int[shards.getCount()];
+
+        for (int i = 0; i < 40_000; i++) {
+            counts[shards.shardOf(shards.newId())]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000, "Unbalanced shards: " + List.of(counts));
+        }
+        shards.shutdown();
+    }
+
+    @Test
+    public void testSingleShardRunsQueriesAsTheyAre() {
+        PropertyShards shards = shards(null);
+        Page<Integer> page = new PageImpl<>(List.of(5, 6), PageRequest.of(2, 2), 10);
+
+        assertEquals(1, shards.getCount());
+        assertEquals(0, shards.shardOf(shards.newId()));
+        assertSame(page, shards.page(PageRequest.of(2, 2), Comparator.<Integer>naturalOrder(), pageable -> page));
+    }
+
+    private static PropertyShards shards(String urls) {
+        MockEnvironment environment = new MockEnvironment();
+        if (urls != null) {
+            environment.setProperty("datasource.shards.urls", urls);
+        }
+        return new PropertyShards(environment, mock(PlatformTransactionManager.class));
+    }
+}
@@ -0,0 +1,66 @@
+package arep.crudsystem.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnowflakeIdGeneratorTest {
+
+    private final AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 1_000);
+
+    @Test
+    public void testIdsAreUniqueAndIncreasingWithinAMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::get);
+
+        long previous = 0;
+        Set<Long> ids = new HashSet<>();
+        // More IDs than the 7-bit sequence holds, so the generator borrows the following milliseconds
+        for (int i = 0; i < 1_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testClockGoingBackwardsNeverRepeatsIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+        long first = generator.nextId();
+
+        clock.addAndGet(-500);
+
+        assertTrue(generator.nextId() > first);
+    }
+
+    @Test
+    public void testWorkersNeverCollide() {
+        SnowflakeIdGenerator worker1 = new SnowflakeIdGenerator(1, clock::get);
+        SnowflakeIdGenerator worker2 = new SnowflakeIdGenerator(2, clock::get);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            assertTrue(ids.add(worker1.nextId()));
+            assertTrue(ids.add(worker2.nextId()));
+        }
+    }
+
+    @Test
+    public void testIdsFitInAJavaScriptNumberUntil2094() {
+        clock.set(Instant.parse("2094-01-01T00:00:00Z").toEpochMilli());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID, clock::get);
+
+        assertTrue(generator.nextId() <= (1L << 53) - 1);
+    }
+
+    @Test
+    public void testWorkerIdIsValidated() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(32, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, clock::get));
+    }
+}
@@ -0,0 +1,70 @@
+package arep.crudsystem.sql;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SqlAccountingFilterTest {
+
+    private final SqlAccountingFilter filter = new SqlAccountingFilter(3, 10_000, 5, 50);
+
+    @Test
+    void testStatementsAreAttributedToTheRequest() throws Exception {
+        AtomicReference<SqlRequestStatistics> captured = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/properties/search"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    SqlRequestContext.current().record("select * from properties limit ?", 1_000_000);
+                    SqlRequestContext.current().record("select count(*) from properties", 2_000_000);
+                    captured.set(SqlRequestContext.current());
+                });
+
+        assertEquals(2, captured.get().getCount());
+        assertEquals(3_000_000, captured.get().getTotalNanos());
+        assertEquals(1, captured.get().getMaxRepeats());
+        assertNull(SqlRequestContext.current());
+    }
+
+    @Test
+    void testRepeatedStatementIsReportedAsNPlusOne(CapturedOutput output) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/properties"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    for (int i = 0; i < 5; i++) {
+                        SqlRequestContext.current().record("select * from properties where id=?", 1000);
+                    }
+                });
+
+        assertTrue(output.getOut().contains("Possible N+1 in GET /api/properties: statement executed 5 times: "
+                + "select * from properties where id=?"));
+    }
+
+    @Test
+    void testRequestOverStatementBudgetIsLogged(CapturedOutput output) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/properties/batch"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    for (int i = 0; i < 4; i++) {
+                        SqlRequestContext.current().record("insert into properties values (" + i + ")", 1000);
+                    }
+                });
+
+        assertTrue(output.getOut().contains("POST /api/properties/batch issued 4 SQL statements"));
+        assertTrue(output.getOut().contains("insert into properties values (3)"));
+    }
+
+    @Test
+    void testRequestWithinBudgetIsNotLogged(CapturedOutput output) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/properties/1"), new MockHttpServletResponse(),
+                (request, response) -> SqlRequestContext.current().record("select * from properties where id=?", 1000));
+
+        assertFalse(output.getOut().contains("SQL statements"));
+        assertFalse(output.getOut().contains("N+1"));
+    }
+}
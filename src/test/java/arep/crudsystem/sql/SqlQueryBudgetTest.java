@@ -0,0 +1,96 @@
+package arep.crudsystem.sql;
+
+import arep.crudsystem.model.Property;
+import arep.crudsystem.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the number of SQL statements per endpoint through the debug headers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.ssl.enabled=false", "sql.accounting.debug-headers=true", "property.search.engine=database"})
+class SqlQueryBudgetTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @BeforeEach
+    void setUp() {
+        propertyRepository.deleteAll();
+        for (int i = 1; i <= 10; i++) {
+            Property property = new Property();
+            property.setAddress("Calle " + i);
+            property.setPrice(100.0 * i);
+            property.setSize(50.0);
+            propertyRepository.save(property);
+        }
+    }
+
+    @Test
+    void testSearchIssuesPageAndCountQueriesOnce() throws Exception {
+        HttpResponse<String> first = get("/api/properties/search?maxPrice=900&page=0&size=5");
+        HttpResponse<String> second = get("/api/properties/search?maxPrice=900&page=0&size=5");
+
+        assertEquals(200, first.statusCode());
+        assertEquals("2", first.headers().firstValue(SqlAccountingResponseAdvice.STATEMENTS_HEADER).orElseThrow());
+        assertEquals("1", first.headers().firstValue(SqlAccountingResponseAdvice.MAX_REPEATS_HEADER).orElseThrow());
+        assertEquals("0", second.headers().firstValue(SqlAccountingResponseAdvice.STATEMENTS_HEADER).orElseThrow());
+    }
+
+    @Test
+    void testSearchWithoutTotalSkipsCountQuery() throws Exception {
+        HttpResponse<String> response = get("/api/properties/search?maxPrice=900&page=0&size=5&withTotal=false");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("1", response.headers().firstValue(SqlAccountingResponseAdvice.STATEMENTS_HEADER).orElseThrow());
+    }
+
+    @Test
+    void testApproximateTotalCountsOncePerFilterCombination() throws Exception {
+        HttpResponse<String> first = get("/api/properties/search?maxSize=60&page=0&size=5&withTotal=approximate");
+        HttpResponse<String> second = get("/api/properties/search?maxSize=60&page=1&size=5&withTotal=approximate");
+
+        assertEquals("2", first.headers().firstValue(SqlAccountingResponseAdvice.STATEMENTS_HEADER).orElseThrow());
+        assertEquals("1", second.headers().firstValue(SqlAccountingResponseAdvice.STATEMENTS_HEADER).orElseThrow());
+        assertTrue(second.body().contains("\"totalElements\":10"));
+    }
+
+    @Test
+    void testSummaryPageReadsOnlySummaryColumns() throws Exception {
+        HttpResponse<String> response = get("/api/properties?page=0&size=5&withTotal=false&fields=summary");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("1", response.headers().firstValue(SqlAccountingResponseAdvice.STATEMENTS_HEADER).orElseThrow());
+        assertTrue(response.body().contains("\"address\":\"Calle 1\""));
+        assertFalse(response.body().contains("description"));
+    }
+
+    @Test
+    void testKeysetPageIssuesSingleQuery() throws Exception {
+        HttpResponse<String> response = get("/api/properties?after=&size=5");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("1", response.headers().firstValue(SqlAccountingResponseAdvice.STATEMENTS_HEADER).orElseThrow());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,33 @@
+package arep.crudsystem.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlRequestStatisticsTest {
+
+    @Test
+    void testRecordedStatementsAreBoundedButCounted() {
+        SqlRequestStatistics statistics = new SqlRequestStatistics(2);
+
+        statistics.record("select 1", 10);
+        statistics.record("select 2", 20);
+        statistics.record("select 3", 30);
+
+        assertEquals(3, statistics.getCount());
+        assertEquals(60, statistics.getTotalNanos());
+        assertEquals(2, statistics.getStatements().size());
+    }
+
+    @Test
+    void testRepeatsAreCountedPerStatementText() {
+        SqlRequestStatistics statistics = new SqlRequestStatistics(10);
+
+        statistics.record("select * from properties where id=?", 1);
+        statistics.record("select count(*) from properties", 1);
+        statistics.record("select * from properties where id=?", 1);
+
+        assertEquals(2, statistics.getMaxRepeats());
+        assertEquals("select * from properties where id=?", statistics.getMostRepeated());
+    }
+}